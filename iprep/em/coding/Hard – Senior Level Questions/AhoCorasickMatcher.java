@@ -0,0 +1,187 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Aho–Corasick: find every occurrence of every dictionary word in ONE pass.
+//
+// Calling trie.search() at every offset of a text costs O(n × L). The
+// automaton instead follows the trie as far as the text allows and, on a
+// mismatch, jumps along the FAILURE link to the longest suffix of what it has
+// read that is still a trie path — it never re-reads a character. OUTPUT links
+// chain the shorter words that end at the same position ("he" inside "she").
+//
+//   Trie trie = new Trie();  words.forEach(trie::insert);
+//   AhoCorasickMatcher matcher = trie.buildMatcher();
+//   matcher.scan(reader, (word, start, end) -> ...);
+//
+// - O(n + matches) per scan, whatever the number of words.
+// - Streams: the only state carried between chunks is the current state, so an
+//   unbounded Reader is scanned with one fixed 8 KB buffer.
+// - buildMatcher() copies the trie into this matcher's own arrays, so later
+//   Trie.insert() calls can't disturb it (they just aren't seen: build again).
+//   Nothing here changes after construction and all scan state is local, so
+//   one matcher can be shared by any number of scanner threads.
+// - Alphabet is the Trie's 'a'-'z'; any other char (space, digit, capital)
+//   can't be part of a word and resets the automaton to the root.
+//
+// States are numbered breadth-first (0 = root). The failure links are folded
+// into a full transition table: next[s * 26 + c] is where state s goes on
+// char c, child or not, so a step is one array read with no fail-chain loop.
+
+public class AhoCorasickMatcher {
+
+    public interface MatchListener {
+        // [start, end) in chars (bytes for ByteBuffer scans) from the start of the input
+        void onMatch(String word, long start, long end);
+    }
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final int NONE = -1;
+
+    private final int[] next; // state * 26 + c → next state
+    private final int[] output; // state → nearest word-end state along the fail chain, or NONE
+    private final String[] words; // state → the word ending there (terminal states only)
+
+    private AhoCorasickMatcher(int[] next, int[] output, String[] words) {
+        this.next = next;
+        this.output = output;
+        this.words = words;
+    }
+
+    // BFS over the trie: a node's fail target is always shallower, so its row
+    // of `next` is already complete when the node is reached
+    static AhoCorasickMatcher build(TrieNode root) {
+        List<TrieNode> queue = new ArrayList<>(); // state id → TrieNode
+        int[] parent = new int[16];
+        char[] edge = new char[16];
+        int[] depth = new int[16];
+        int[] fail = new int[16];
+        int[] output = new int[16];
+        int[] next = new int[16 * 26];
+        List<String> words = new ArrayList<>();
+        queue.add(root);
+        words.add(null); // the empty word is never reported
+        output[0] = NONE;
+
+        for (int s = 0; s < queue.size(); s++) {
+            TrieNode node = queue.get(s);
+            if (next.length < queue.size() * 26 + 26 * 26) {
+                int size = Math.max(queue.size() + 26, next.length / 26 * 2);
+                next = Arrays.copyOf(next, size * 26);
+                parent = Arrays.copyOf(parent, size);
+                edge = Arrays.copyOf(edge, size);
+                depth = Arrays.copyOf(depth, size);
+                fail = Arrays.copyOf(fail, size);
+                output = Arrays.copyOf(output, size);
+            }
+            for (int c = 0; c < 26; c++) {
+                TrieNode child = node.children[c];
+                int viaFail = s == 0 ? 0 : next[fail[s] * 26 + c];
+                if (child == null) {
+                    next[s * 26 + c] = viaFail;
+                    continue;
+                }
+                int id = queue.size();
+                queue.add(child);
+                next[s * 26 + c] = id;
+                parent[id] = s;
+                edge[id] = (char) ('a' + c);
+                depth[id] = depth[s] + 1;
+                fail[id] = viaFail;
+                output[id] = words.get(viaFail) != null ? viaFail : output[viaFail];
+                words.add(child.isEndOfWord ? spell(id, parent, edge, depth[id]) : null);
+            }
+        }
+        int states = queue.size();
+        return new AhoCorasickMatcher(Arrays.copyOf(next, states * 26), Arrays.copyOf(output, states),
+                words.toArray(new String[0]));
+    }
+
+    // The path to `state`, read back through the parent links (terminal states only)
+    private static String spell(int state, int[] parent, char[] edge, int length) {
+        char[] chars = new char[length];
+        for (int i = length - 1; i >= 0; i--, state = parent[state]) {
+            chars[i] = edge[state];
+        }
+        return new String(chars);
+    }
+
+    public void scan(CharSequence text, MatchListener listener) {
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = step(state, text.charAt(i), i, listener);
+        }
+    }
+
+    public void scan(Reader reader, MatchListener listener) throws IOException {
+        char[] buffer = new char[BUFFER_SIZE];
+        int state = 0;
+        long offset = 0;
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+            for (int i = 0; i < read; i++) {
+                state = step(state, buffer[i], offset + i, listener);
+            }
+            offset += read;
+        }
+    }
+
+    // Bytes are matched as ASCII. That is exact for UTF-8 input too: bytes of
+    // multi-byte UTF-8 sequences are >= 0x80 and never look like 'a'-'z'.
+    public void scan(ByteBuffer bytes, MatchListener listener) {
+        int state = 0;
+        for (int i = bytes.position(); i < bytes.limit(); i++) {
+            state = step(state, (char) (bytes.get(i) & 0xFF), i - bytes.position(), listener);
+        }
+    }
+
+    public int stateCount() {
+        return words.length;
+    }
+
+    // Consumes one char at `offset`, reports words ending there, returns the new state
+    private int step(int state, char ch, long offset, MatchListener listener) {
+        int index = ch - 'a';
+        if (index < 0 || index >= 26) {
+            return 0;
+        }
+        state = next[state * 26 + index];
+        for (int match = words[state] != null ? state : output[state]; match != NONE; match = output[match]) {
+            String word = words[match];
+            listener.onMatch(word, offset + 1 - word.length(), offset + 1);
+        }
+        return state;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Trie trie = new Trie();
+        for (String word : new String[] { "he", "she", "his", "hers", "secret" }) {
+            trie.insert(word);
+        }
+        AhoCorasickMatcher matcher = trie.buildMatcher();
+        MatchListener print = (word, start, end) -> System.out.println("  " + word + " [" + start + ", " + end + ")");
+
+        System.out.println("CharSequence:");
+        matcher.scan("ushers", print); // she [1, 4), he [2, 4), hers [2, 6)
+
+        System.out.println("Reader:");
+        matcher.scan(new StringReader("the secret is his"), print); // he, secret, his
+
+        System.out.println("ByteBuffer (UTF-8):");
+        matcher.scan(ByteBuffer.wrap("café secret".getBytes(StandardCharsets.UTF_8)), print); // secret [6, 12)
+
+        System.out.println(trie.search("hers")); // true: the trie itself still works
+
+        // The matcher is a snapshot: inserting more words doesn't touch it
+        trie.insert("hex");
+        System.out.println("After insert(\"hex\"), old matcher:");
+        matcher.scan("hexa", print); // he [0, 2)
+        System.out.println("Rebuilt matcher:");
+        trie.buildMatcher().scan("hexa", print); // he [0, 2), hex [0, 3)
+    }
+}
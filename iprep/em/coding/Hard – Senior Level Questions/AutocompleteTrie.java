@@ -0,0 +1,188 @@
+import java.util.*;
+
+// Typeahead: top-K completions by weight for any prefix, in O(prefix length + k).
+//
+// Trie.startsWith only says yes/no and indexes children with `ch - 'a'`, so it
+// can't hold "café", "naïve", "東京" or emoji. Here:
+//
+// - Children are keyed by Unicode CODE POINT (HashMap), not a 26-slot array.
+// - Every node caches `top`: the best `maxK` words in its subtree, sorted by
+//   weight (desc). topK(prefix, k) = walk to the prefix node + copy k entries.
+//   No subtree search at query time.
+// - Weight changes arrive in batches: updateWeights() touches only the nodes on
+//   the changed words' paths and recomputes their `top` lists deepest-first, so
+//   each affected node is recomputed once per batch — no full rebuild.
+//
+// Memory trade-off: up to maxK references per branching node (single-child
+// chains share their child's list) for constant-time answers.
+
+public class AutocompleteTrie {
+
+    private static final Comparator<Node> BEST_FIRST = (a, b) -> a.weight != b.weight
+            ? Long.compare(b.weight, a.weight)
+            : a.word.compareTo(b.word); // ties: alphabetical, so results are stable
+
+    static final class Node {
+        final Node parent;
+        final int depth;
+        final Map<Integer, Node> children = new HashMap<>(4); // code point → child
+        String word; // non-null ⇔ a word ends here
+        long weight;
+        Node[] top = new Node[0]; // best words in this subtree, best first
+
+        Node(Node parent, int depth) {
+            this.parent = parent;
+            this.depth = depth;
+        }
+    }
+
+    private final int maxK;
+    private final Node root = new Node(null, 0);
+    private int size;
+
+    public AutocompleteTrie(int maxK) {
+        if (maxK <= 0) {
+            throw new IllegalArgumentException("maxK must be positive");
+        }
+        this.maxK = maxK;
+    }
+
+    // Adds the word, or replaces its weight if it is already present
+    public void insert(String word, long weight) {
+        Node node = nodeFor(word);
+        node.weight = weight;
+        refreshPath(node);
+    }
+
+    // Batched popularity updates: word → weight delta. Unknown words are added
+    // with the delta as their weight.
+    public void updateWeights(Map<String, Long> deltas) {
+        // Bucket every node on a changed path by depth, then recompute deepest first:
+        // a node's children are always up to date when it is recomputed.
+        List<Set<Node>> byDepth = new ArrayList<>();
+        for (Map.Entry<String, Long> e : deltas.entrySet()) {
+            Node node = nodeFor(e.getKey());
+            node.weight += e.getValue();
+            for (Node n = node; n != null; n = n.parent) {
+                while (byDepth.size() <= n.depth) {
+                    byDepth.add(new HashSet<>());
+                }
+                if (!byDepth.get(n.depth).add(n)) {
+                    break; // this ancestor chain is already queued
+                }
+            }
+        }
+        for (int depth = byDepth.size() - 1; depth >= 0; depth--) {
+            for (Node node : byDepth.get(depth)) {
+                recompute(node);
+            }
+        }
+    }
+
+    // Best k completions of `prefix` (k <= maxK), best first
+    public List<String> topK(String prefix, int k) {
+        if (k > maxK) {
+            throw new IllegalArgumentException("k=" + k + " exceeds the cached maxK=" + maxK);
+        }
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null;) {
+            int cp = prefix.codePointAt(i);
+            node = node.children.get(cp);
+            i += Character.charCount(cp);
+        }
+        if (node == null) {
+            return Collections.emptyList();
+        }
+        int n = Math.min(k, node.top.length);
+        List<String> result = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            result.add(node.top[i].word);
+        }
+        return result;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Walks (and creates) the path for `word`, one node per code point
+    private Node nodeFor(String word) {
+        Node node = root;
+        for (int i = 0; i < word.length();) {
+            int cp = word.codePointAt(i);
+            Node parent = node;
+            node = node.children.computeIfAbsent(cp, c -> new Node(parent, parent.depth + 1));
+            i += Character.charCount(cp);
+        }
+        if (node.word == null) {
+            node.word = word;
+            size++;
+        }
+        return node;
+    }
+
+    private void refreshPath(Node node) {
+        for (Node n = node; n != null; n = n.parent) {
+            recompute(n);
+        }
+    }
+
+    // top = best maxK of (this word, children's top lists). Every list is already
+    // sorted, so this is a k-way merge: O(children × maxK), no sorting.
+    private void recompute(Node node) {
+        Collection<Node> children = node.children.values();
+        if (node.word == null && children.size() == 1) {
+            node.top = children.iterator().next().top; // share: top arrays are never modified in place
+            return;
+        }
+        Node[][] lists = new Node[children.size() + 1][];
+        int count = 0;
+        if (node.word != null) {
+            lists[count++] = new Node[] { node };
+        }
+        for (Node child : children) {
+            lists[count++] = child.top;
+        }
+        int[] heads = new int[count];
+        Node[] top = new Node[maxK];
+        int size = 0;
+        while (size < maxK) {
+            int best = -1;
+            for (int i = 0; i < count; i++) {
+                if (heads[i] < lists[i].length
+                        && (best < 0 || BEST_FIRST.compare(lists[i][heads[i]], lists[best][heads[best]]) < 0)) {
+                    best = i;
+                }
+            }
+            if (best < 0) {
+                break; // fewer than maxK words in this subtree
+            }
+            top[size++] = lists[best][heads[best]++];
+        }
+        node.top = size == maxK ? top : Arrays.copyOf(top, size);
+    }
+
+    public static void main(String[] args) {
+        AutocompleteTrie trie = new AutocompleteTrie(10);
+        trie.insert("café", 50);
+        trie.insert("cafeteria", 80);
+        trie.insert("car", 120);
+        trie.insert("cart", 30);
+        trie.insert("東京", 90);
+        trie.insert("東京タワー", 40);
+        trie.insert("🍕 pizza", 70);
+
+        System.out.println(trie.topK("ca", 3)); // [car, cafeteria, café]
+        System.out.println(trie.topK("東", 10)); // [東京, 東京タワー]
+        System.out.println(trie.topK("🍕", 1)); // [🍕 pizza]
+
+        // A batch of popularity changes: café trends, car cools down, new word arrives
+        Map<String, Long> deltas = new HashMap<>();
+        deltas.put("café", 100L);
+        deltas.put("car", -100L);
+        deltas.put("carbonara", 60L);
+        trie.updateWeights(deltas);
+        System.out.println(trie.topK("ca", 3)); // [café, cafeteria, carbonara]
+        System.out.println(trie.topK("car", 10)); // [carbonara, cart, car]
+    }
+}
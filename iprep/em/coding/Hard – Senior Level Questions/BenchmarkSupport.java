@@ -0,0 +1,39 @@
+import java.util.Random;
+
+// Helpers shared by the benchmark and demo main()s in this folder, so none of
+// them depends on another benchmark class.
+
+final class BenchmarkSupport {
+
+    private BenchmarkSupport() {
+    }
+
+    // Random lowercase words of length 3-15 that share prefixes like a real
+    // vocabulary: each one extends a random earlier word half the time
+    static String[] dictionary(int count, Random random) {
+        String[] words = new String[count];
+        for (int i = 0; i < count; i++) {
+            StringBuilder sb = new StringBuilder();
+            if (i > 0 && random.nextBoolean()) {
+                String base = words[random.nextInt(i)];
+                sb.append(base, 0, 1 + random.nextInt(base.length()));
+            }
+            int length = 3 + random.nextInt(13);
+            while (sb.length() < length) {
+                sb.append((char) ('a' + random.nextInt(26)));
+            }
+            words[i] = sb.toString();
+        }
+        return words;
+    }
+
+    // Heap in use after a few full GCs: the difference of two calls is the
+    // memory retained by whatever was built in between
+    static long usedAfterGc() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
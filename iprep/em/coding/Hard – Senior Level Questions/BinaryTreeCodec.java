@@ -0,0 +1,280 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+// Compact binary, NON-recursive codec for binary trees.
+//
+// SerializeDeserializeBinaryTree writes "1,2,4,#,#,5,#,#,3,#,#": ~4-12 bytes
+// of text per slot, a split() into millions of Strings to read it back, and
+// recursion in both directions (StackOverflowError on a deep, list-like tree).
+//
+// Same preorder slot sequence (node or null), encoded as:
+//
+//   [format byte]
+//   group of 8 slots: [bitmap byte: bit i = slot i is a node] [zig-zag varints of those nodes' values]
+//   group of 8 slots: ...
+//
+//   null slot  → 1 bit
+//   node       → 1 bit + 1-5 bytes (small values, positive or negative, take 1 byte)
+//
+// Both directions use an explicit stack, so tree depth is limited only by heap.
+// Data flows through an 8 KB buffer to/from an OutputStream, InputStream or
+// ByteBuffer: a 10M-node tree never exists as one String or byte[].
+
+public class BinaryTreeCodec {
+
+    private static final int FORMAT = 1;
+    private static final int BUFFER_SIZE = 8192;
+
+    // ----- encoding -----
+
+    public static void encode(TreeNode root, OutputStream out) throws IOException {
+        Output sink = new Output(out, null);
+        encode(root, sink);
+        sink.flush();
+    }
+
+    // Throws BufferOverflowException if `buffer` is too small
+    public static void encode(TreeNode root, ByteBuffer buffer) {
+        try {
+            Output sink = new Output(null, buffer);
+            encode(root, sink);
+            sink.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // can't happen: no stream involved
+        }
+    }
+
+    public static byte[] encode(TreeNode root) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            encode(root, bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void encode(TreeNode root, Output out) throws IOException {
+        out.write(FORMAT);
+        int[] values = new int[8]; // values of the nodes in the current group
+        int slots = 0, bitmap = 0, nodes = 0;
+
+        TreeNode[] stack = new TreeNode[64];
+        int top = 0;
+        stack[top++] = root;
+        while (top > 0) { // preorder: node, left subtree, right subtree
+            TreeNode node = stack[--top];
+            if (node != null) {
+                bitmap |= 1 << slots;
+                values[nodes++] = node.val;
+                if (top + 2 > stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                }
+                stack[top++] = node.right;
+                stack[top++] = node.left;
+            }
+            if (++slots == 8 || top == 0) { // group full, or the last (partial) group
+                out.write(bitmap);
+                for (int i = 0; i < nodes; i++) {
+                    writeVarint(out, (values[i] << 1) ^ (values[i] >> 31)); // zig-zag: -1 → 1, 1 → 2
+                }
+                slots = bitmap = nodes = 0;
+            }
+        }
+    }
+
+    private static void writeVarint(Output out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    // ----- decoding -----
+
+    // Reads in 8 KB chunks: bytes after the tree may be consumed from `in`
+    public static TreeNode decode(InputStream in) throws IOException {
+        return decode(new Input(in, null));
+    }
+
+    // Leaves `buffer` positioned right after the tree
+    public static TreeNode decode(ByteBuffer buffer) {
+        Input source = new Input(null, buffer);
+        try {
+            return decode(source);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            buffer.position(buffer.position() - (source.limit - source.pos)); // give back unread bytes
+        }
+    }
+
+    public static TreeNode decode(byte[] data) {
+        try {
+            return decode(new ByteArrayInputStream(data));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static TreeNode decode(Input in) throws IOException {
+        int format = in.read();
+        if (format != FORMAT) {
+            throw new IOException("Unknown tree format: " + format);
+        }
+        // Stack of nodes still waiting for a child; side[k] = 0 → left next, 1 → right next
+        TreeNode[] parents = new TreeNode[64];
+        byte[] side = new byte[64];
+        int top = 0;
+        TreeNode root = null;
+        boolean first = true;
+
+        while (first || top > 0) {
+            int bitmap = in.read();
+            for (int slot = 0; slot < 8 && (first || top > 0); slot++) {
+                TreeNode node = null;
+                if ((bitmap & (1 << slot)) != 0) {
+                    int zigzag = readVarint(in);
+                    node = new TreeNode((zigzag >>> 1) ^ -(zigzag & 1));
+                }
+                if (first) {
+                    root = node;
+                    first = false;
+                } else {
+                    TreeNode parent = parents[top - 1];
+                    if (side[top - 1] == 0) {
+                        parent.left = node;
+                        side[top - 1] = 1;
+                    } else {
+                        parent.right = node;
+                        top--; // both children done
+                    }
+                }
+                if (node != null) {
+                    if (top == parents.length) {
+                        parents = Arrays.copyOf(parents, top * 2);
+                        side = Arrays.copyOf(side, top * 2);
+                    }
+                    parents[top] = node;
+                    side[top++] = 0;
+                }
+            }
+        }
+        return root;
+    }
+
+    private static int readVarint(Input in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.read();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    // ----- 8 KB buffered byte sink / source over a stream or a ByteBuffer -----
+
+    private static final class Output {
+        final OutputStream stream;
+        final ByteBuffer buffer;
+        final byte[] chunk = new byte[BUFFER_SIZE];
+        int pos;
+
+        Output(OutputStream stream, ByteBuffer buffer) {
+            this.stream = stream;
+            this.buffer = buffer;
+        }
+
+        void write(int b) throws IOException {
+            if (pos == chunk.length) {
+                flush();
+            }
+            chunk[pos++] = (byte) b;
+        }
+
+        void flush() throws IOException {
+            if (stream != null) {
+                stream.write(chunk, 0, pos);
+            } else {
+                buffer.put(chunk, 0, pos);
+            }
+            pos = 0;
+        }
+    }
+
+    private static final class Input {
+        final InputStream stream;
+        final ByteBuffer buffer;
+        final byte[] chunk = new byte[BUFFER_SIZE];
+        int pos, limit;
+
+        Input(InputStream stream, ByteBuffer buffer) {
+            this.stream = stream;
+            this.buffer = buffer;
+        }
+
+        int read() throws IOException {
+            if (pos == limit) {
+                pos = 0;
+                if (stream != null) {
+                    limit = stream.read(chunk);
+                } else {
+                    limit = Math.min(chunk.length, buffer.remaining());
+                    buffer.get(chunk, 0, limit);
+                }
+                if (limit <= 0) {
+                    limit = 0;
+                    throw new EOFException("Truncated tree data");
+                }
+            }
+            return chunk[pos++] & 0xFF;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        //     1
+        //    / \
+        //   2   -3
+        //  / \
+        // 4   500
+        TreeNode root = new TreeNode(1);
+        root.left = new TreeNode(2);
+        root.right = new TreeNode(-3);
+        root.left.left = new TreeNode(4);
+        root.left.right = new TreeNode(500);
+
+        SerializeDeserializeBinaryTree text = new SerializeDeserializeBinaryTree();
+        byte[] binary = encode(root);
+        System.out.println("Text:   " + text.serialize(root).length() + " bytes"); // 25 bytes
+        System.out.println("Binary: " + binary.length + " bytes"); // 9 bytes
+        System.out.println(text.serialize(decode(binary))); // 1,2,4,#,#,500,#,#,-3,#,#,
+
+        // A 1,000,000-deep "linked list" tree: the recursive codec overflows the stack
+        TreeNode deep = new TreeNode(0);
+        TreeNode tail = deep;
+        for (int i = 1; i < 1_000_000; i++) {
+            tail.right = new TreeNode(i);
+            tail = tail.right;
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(4 << 20);
+        encode(deep, buffer);
+        buffer.flip();
+        TreeNode back = decode(buffer);
+        int depth = 0;
+        for (TreeNode n = back; n != null; n = n.right) {
+            depth++;
+        }
+        System.out.println("Deep tree round trip: depth " + depth); // 1000000
+    }
+}
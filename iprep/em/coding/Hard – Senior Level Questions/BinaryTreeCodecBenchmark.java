@@ -0,0 +1,155 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Random;
+
+// Size and speed: SerializeDeserializeBinaryTree (text, recursive) vs
+// BinaryTreeCodec (varint + null bitmap, explicit stack).
+//
+//   random  n-node random BST shape (depth ~2 ln n), small and large values
+//   deep    n-node right-leaning chain (depth n): the text codec overflows the stack
+//
+// Encoding runs to byte[] / String, decoding back from them; each tree is round-
+// tripped and compared node by node.
+//
+//   java -Xmx4g BinaryTreeCodecBenchmark 2000000     # nodes
+
+public class BinaryTreeCodecBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        Random random = new Random(42);
+
+        run("random, values < 100", randomTree(n, 100, random));
+        run("random, any int", randomTree(n, Integer.MAX_VALUE, random));
+        run("deep chain", chain(n));
+    }
+
+    static void run(String name, TreeNode root) throws IOException {
+        System.out.printf("%s (%,d nodes)%n", name, count(root));
+        SerializeDeserializeBinaryTree text = new SerializeDeserializeBinaryTree();
+        for (int round = 0; round < 3; round++) { // first rounds are JIT warm-up
+            boolean last = round == 2;
+            try {
+                long start = System.nanoTime();
+                String data = text.serialize(root);
+                long encoded = System.nanoTime();
+                TreeNode back = text.deserialize(data);
+                long decoded = System.nanoTime();
+                check(root, back);
+                if (last) {
+                    report("text", data.length(), encoded - start, decoded - encoded);
+                }
+            } catch (StackOverflowError e) {
+                if (last) {
+                    System.out.println("  text     StackOverflowError");
+                }
+            }
+
+            long start = System.nanoTime();
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            BinaryTreeCodec.encode(root, out);
+            byte[] data = out.toByteArray();
+            long encoded = System.nanoTime();
+            TreeNode back = BinaryTreeCodec.decode(new ByteArrayInputStream(data));
+            long decoded = System.nanoTime();
+            check(root, back);
+            if (last) {
+                report("binary", data.length, encoded - start, decoded - encoded);
+            }
+        }
+    }
+
+    static void report(String name, long bytes, long encodeNanos, long decodeNanos) {
+        System.out.printf("  %-8s %,14d bytes   encode %,6d ms   decode %,6d ms%n", name, bytes,
+                encodeNanos / 1_000_000, decodeNanos / 1_000_000);
+    }
+
+    // Shape of a random BST (iterative insertion of random keys: expected depth
+    // ~2 ln n), then values drawn from [0, bound)
+    static TreeNode randomTree(int n, int bound, Random random) {
+        TreeNode root = new TreeNode(random.nextInt());
+        for (int i = 1; i < n; i++) {
+            int key = random.nextInt();
+            TreeNode node = root;
+            while (true) {
+                if (key < node.val) {
+                    if (node.left == null) {
+                        node.left = new TreeNode(key);
+                        break;
+                    }
+                    node = node.left;
+                } else {
+                    if (node.right == null) {
+                        node.right = new TreeNode(key);
+                        break;
+                    }
+                    node = node.right;
+                }
+            }
+        }
+        ArrayDeque<TreeNode> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            TreeNode node = stack.pop();
+            node.val = random.nextInt(bound);
+            if (node.left != null) {
+                stack.push(node.left);
+            }
+            if (node.right != null) {
+                stack.push(node.right);
+            }
+        }
+        return root;
+    }
+
+    static TreeNode chain(int n) {
+        TreeNode root = new TreeNode(0);
+        TreeNode tail = root;
+        for (int i = 1; i < n; i++) {
+            tail.right = new TreeNode(i % 2 == 0 ? i : -i);
+            tail = tail.right;
+        }
+        return root;
+    }
+
+    // Iterative: the trees are too deep for recursion
+    static int count(TreeNode root) {
+        int count = 0;
+        ArrayDeque<TreeNode> stack = new ArrayDeque<>();
+        if (root != null) {
+            stack.push(root);
+        }
+        while (!stack.isEmpty()) {
+            TreeNode node = stack.pop();
+            count++;
+            if (node.left != null) {
+                stack.push(node.left);
+            }
+            if (node.right != null) {
+                stack.push(node.right);
+            }
+        }
+        return count;
+    }
+
+    static void check(TreeNode expected, TreeNode actual) {
+        ArrayDeque<TreeNode[]> stack = new ArrayDeque<>();
+        stack.push(new TreeNode[] { expected, actual });
+        while (!stack.isEmpty()) {
+            TreeNode[] pair = stack.pop();
+            if (pair[0] == null || pair[1] == null) {
+                if (pair[0] != pair[1]) {
+                    throw new AssertionError("shape differs");
+                }
+                continue;
+            }
+            if (pair[0].val != pair[1].val) {
+                throw new AssertionError("value differs: " + pair[0].val + " vs " + pair[1].val);
+            }
+            stack.push(new TreeNode[] { pair[0].right, pair[1].right });
+            stack.push(new TreeNode[] { pair[0].left, pair[1].left });
+        }
+    }
+}
@@ -0,0 +1,252 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Cache-line blocked Bloom filter for "is this string in the dictionary?".
+//
+// A classic Bloom filter sets k bits spread over the WHOLE bit array, so one
+// lookup can cost k cache misses. Here the array is split into 512-bit blocks
+// (8 longs = one 64-byte cache line): a key hashes to ONE block and all its k
+// bits live inside it ⇒ a lookup touches one cache line. Slightly higher FPP
+// than a classic filter of the same size, much cheaper to probe.
+//
+//   "no"    → definitely not in the dictionary (skip the trie walk / set lookup)
+//   "maybe" → check the real dictionary
+//
+// Sized from the expected number of keys and a target false-positive rate.
+// Keys are hashed straight from a CharSequence range: no substring needed.
+// mightContain() keeps no statistics, so a rejected probe reads one cache line
+// and writes nothing. measureFalsePositiveRate() is a separate calibration call
+// that shows what the filter actually achieves.
+//
+// put() is not thread-safe; mightContain() is safe once the filter is built.
+
+public class BlockedBloomFilter {
+
+    private static final int MAGIC = 0x424C4F4D; // "BLOM"
+    private static final int BLOCK_BITS = 512;
+    private static final int LONGS_PER_BLOCK = BLOCK_BITS / Long.SIZE;
+    private static final int BITS_PER_HASH = 64 / 9; // 9-bit bit positions per 64-bit hash
+    private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+    private static final int MAX_HASHES = 16;
+    private static final int MAX_BLOCKS = Integer.MAX_VALUE / LONGS_PER_BLOCK; // bits[] length must fit an int
+    private static final double BLOCK_OVERHEAD_PER_DECADE = 0.05; // +10% bits at 1%, +20% at 0.01%
+
+    private final long[] bits;
+    private final int blocks;
+    private final int hashes; // k
+    private long count; // keys added: drives approximateFalsePositiveRate()
+
+    public BlockedBloomFilter(long expectedKeys, double falsePositiveRate) {
+        if (expectedKeys <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("need expectedKeys > 0 and 0 < falsePositiveRate < 1");
+        }
+        // Classic sizing: m = -n ln p / (ln 2)^2 bits, k = m/n · ln 2
+        double bitsNeeded = -expectedKeys * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        // Keys don't spread evenly over blocks, and overfull blocks dominate the
+        // FPP; the lower the target, the more extra room that takes.
+        double blockOverhead = 1 + BLOCK_OVERHEAD_PER_DECADE * Math.log10(1 / falsePositiveRate);
+        double blocksNeeded = Math.max(1, Math.ceil(blockOverhead * bitsNeeded / BLOCK_BITS));
+        if (blocksNeeded > MAX_BLOCKS) {
+            throw new IllegalArgumentException("filter would need " + (long) blocksNeeded + " blocks, max " + MAX_BLOCKS);
+        }
+        this.blocks = (int) blocksNeeded;
+        this.hashes = (int) Math.max(1, Math.min(MAX_HASHES, Math.round(bitsNeeded / expectedKeys * Math.log(2))));
+        this.bits = new long[blocks * LONGS_PER_BLOCK];
+    }
+
+    private BlockedBloomFilter(long[] bits, int hashes, long count) {
+        this.bits = bits;
+        this.blocks = bits.length / LONGS_PER_BLOCK;
+        this.hashes = hashes;
+        this.count = count;
+    }
+
+    public void put(CharSequence key) {
+        long h = hash(key, 0, key.length());
+        int base = block(h);
+        long positions = h;
+        for (int i = 0; i < hashes; i++) {
+            if (i % BITS_PER_HASH == 0 && i > 0) {
+                positions = mix(h + i * GOLDEN); // used up 7 x 9 bits: draw fresh ones
+            }
+            int bit = (int) positions & (BLOCK_BITS - 1);
+            positions >>>= 9;
+            bits[base + (bit >>> 6)] |= 1L << bit;
+        }
+        count++;
+    }
+
+    public boolean mightContain(CharSequence key) {
+        return mightContain(key, 0, key.length());
+    }
+
+    // Tests key[from, to) without creating a substring
+    public boolean mightContain(CharSequence key, int from, int to) {
+        long h = hash(key, from, to);
+        int base = block(h);
+        long positions = h;
+        for (int i = 0; i < hashes; i++) {
+            if (i % BITS_PER_HASH == 0 && i > 0) {
+                positions = mix(h + i * GOLDEN);
+            }
+            int bit = (int) positions & (BLOCK_BITS - 1);
+            positions >>>= 9;
+            if ((bits[base + (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Calibration: the fraction of `absentKeys` (keys known NOT to have been
+    // added) that still get a "maybe". Run it on a sample after building the
+    // filter, or offline next to the dictionary.
+    public double measureFalsePositiveRate(Iterable<? extends CharSequence> absentKeys) {
+        long probes = 0;
+        long falsePositives = 0;
+        for (CharSequence key : absentKeys) {
+            probes++;
+            if (mightContain(key)) {
+                falsePositives++;
+            }
+        }
+        return probes == 0 ? 0 : (double) falsePositives / probes;
+    }
+
+    // Estimate from how full the blocks are: average over blocks of (fraction of bits set)^k
+    public double expectedFalsePositiveRate() {
+        double sum = 0;
+        for (int block = 0; block < bits.length; block += LONGS_PER_BLOCK) {
+            int set = 0;
+            for (int i = block; i < block + LONGS_PER_BLOCK; i++) {
+                set += Long.bitCount(bits[i]);
+            }
+            sum += Math.pow((double) set / BLOCK_BITS, hashes);
+        }
+        return sum / blocks;
+    }
+
+    // Estimate from the number of keys added alone, without scanning the bits.
+    // Keys per block are ~Poisson(count / blocks), and a block holding j keys
+    // has each bit set with probability 1 - (1 - 1/512)^(k·j).
+    public double approximateFalsePositiveRate() {
+        double lambda = (double) count / blocks;
+        int maxKeys = (int) (lambda + 10 * Math.sqrt(lambda) + 10); // the tail beyond adds nothing
+        double logP = -lambda; // log P(j = 0), kept in logs so a large lambda can't underflow
+        double sum = 0;
+        for (int j = 0; j <= maxKeys; j++) {
+            if (j > 0) {
+                logP += Math.log(lambda / j);
+            }
+            double bitSet = 1 - Math.pow(1 - 1.0 / BLOCK_BITS, (double) hashes * j);
+            sum += Math.exp(logP) * Math.pow(bitSet, hashes);
+        }
+        return sum;
+    }
+
+    public long sizeInBytes() {
+        return (long) bits.length * Long.BYTES;
+    }
+
+    public int hashFunctions() {
+        return hashes;
+    }
+
+    // ----- serialization (store it next to the dictionary) -----
+
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(hashes);
+        out.writeInt(blocks);
+        out.writeLong(count);
+        for (long word : bits) {
+            out.writeLong(word);
+        }
+    }
+
+    public static BlockedBloomFilter readFrom(DataInput in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a Bloom filter");
+        }
+        int hashes = in.readInt();
+        int blocks = in.readInt();
+        long count = in.readLong();
+        // hashes <= 0 would accept every key; a bad block count would throw or overflow
+        if (hashes < 1 || hashes > MAX_HASHES || blocks < 1 || blocks > MAX_BLOCKS || count < 0) {
+            throw new IOException("Corrupt Bloom filter: k=" + hashes + ", " + blocks + " blocks, " + count + " keys");
+        }
+        long[] bits = new long[blocks * LONGS_PER_BLOCK];
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] = in.readLong();
+        }
+        return new BlockedBloomFilter(bits, hashes, count);
+    }
+
+    // ----- hashing -----
+
+    // A second, independent mix picks the block (multiply-shift, no modulo);
+    // the k bit positions inside it are 9-bit slices of the key's hash
+    private int block(long h) {
+        long mixed = mix(h ^ GOLDEN);
+        return (int) (((mixed >>> 32) * blocks) >>> 32) * LONGS_PER_BLOCK;
+    }
+
+    // FNV-1a over the chars + a murmur3 finalizer for good bit dispersion
+    private static long hash(CharSequence key, int from, int to) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = from; i < to; i++) {
+            h = (h ^ key.charAt(i)) * 0x100000001B3L;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int keys = 1_000_000;
+        double target = 0.01;
+        BlockedBloomFilter filter = new BlockedBloomFilter(keys, target);
+        for (int i = 0; i < keys; i++) {
+            filter.put("word" + i);
+        }
+
+        // Keys that were never added: every "maybe" is a false positive
+        List<String> absent = new ArrayList<>(keys);
+        for (int i = 0; i < keys; i++) {
+            absent.add("other" + i);
+        }
+        System.out.printf("%,d keys, %,d KB, k=%d%n", keys, filter.sizeInBytes() / 1024, filter.hashFunctions());
+        System.out.printf("target FPP %.2f%%, measured %.2f%%, estimated %.2f%% (from bits), %.2f%% (from key count)%n",
+                100 * target, 100 * filter.measureFalsePositiveRate(absent), 100 * filter.expectedFalsePositiveRate(),
+                100 * filter.approximateFalsePositiveRate());
+        System.out.println(filter.mightContain("word42")); // true: no false negatives
+        System.out.println(filter.mightContain("xxword42xx", 2, 8)); // true: same key, no substring
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        filter.writeTo(new DataOutputStream(bytes));
+        BlockedBloomFilter copy = readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        System.out.println(copy.mightContain("word999999")); // true
+
+        byte[] corrupt = bytes.toByteArray();
+        corrupt[4] = (byte) 0x80; // hashes < 0
+        try {
+            readFrom(new DataInputStream(new ByteArrayInputStream(corrupt)));
+        } catch (IOException e) {
+            System.out.println(e.getMessage()); // Corrupt Bloom filter: k=-2147483641, ...
+        }
+    }
+}
@@ -1,4 +1,6 @@
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 class Node {
     public int val;
@@ -53,6 +55,43 @@ public class CloneGraph {
         return visited.get(node); // return the cloned entry point
     }
 
+    // Same clone, one BFS level at a time with the level's nodes spread over
+    // the common ForkJoin pool. The ConcurrentHashMap decides who clones a node:
+    // Node doesn't override equals/hashCode, so it works as an identity map, and
+    // the thread whose putIfAbsent wins is the only one that queues the node.
+    // Each original node is expanded by exactly one thread, so its clone's
+    // neighbor list needs no locking; the end of a level publishes everything.
+    public Node cloneGraphParallel(Node node) {
+        if (node == null)
+            return null;
+
+        Map<Node, Node> visited = new ConcurrentHashMap<>();
+        visited.put(node, new Node(node.val));
+        List<Node> frontier = Collections.singletonList(node);
+
+        while (!frontier.isEmpty()) {
+            frontier = frontier.parallelStream().flatMap(curr -> {
+                Node copy = visited.get(curr);
+                List<Node> discovered = new ArrayList<>();
+                for (Node neighbor : curr.neighbors) {
+                    Node clone = visited.get(neighbor);
+                    if (clone == null) {
+                        Node fresh = new Node(neighbor.val);
+                        clone = visited.putIfAbsent(neighbor, fresh);
+                        if (clone == null) { // we cloned it: we expand it next level
+                            clone = fresh;
+                            discovered.add(neighbor);
+                        }
+                    }
+                    copy.neighbors.add(clone);
+                }
+                return discovered.stream();
+            }).collect(Collectors.toList());
+        }
+
+        return visited.get(node);
+    }
+
     public static void main(String[] args) {
         // Example usage
         Node node1 = new Node(1);
@@ -71,7 +110,9 @@ public class CloneGraph {
 
         CloneGraph cg = new CloneGraph();
         Node clonedGraph = cg.cloneGraph(node1);
+        Node parallelClone = cg.cloneGraphParallel(node1);
 
-        // You can add code to print the cloned graph to verify correctness
+        System.out.println(CsrGraph.fromNode(clonedGraph).sameAs(CsrGraph.fromNode(node1))); // true
+        System.out.println(CsrGraph.fromNode(parallelClone).sameAs(CsrGraph.fromNode(node1))); // true
     }
 }
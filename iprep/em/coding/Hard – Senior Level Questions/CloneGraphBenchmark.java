@@ -0,0 +1,106 @@
+import java.lang.ref.Reference;
+import java.util.Random;
+
+// Memory and clone time: Node/List<Node> (CloneGraph) vs CsrGraph.
+//
+// Random directed graph: a ring 0 → 1 → ... → 0 (so everything is reachable
+// from vertex 0) plus random edges, `degree` out-edges per vertex in total.
+//
+//   Node form                  retained heap
+//   CsrGraph                   retained heap
+//   cloneGraph                 HashMap + LinkedList BFS
+//   cloneGraphParallel         level-parallel BFS, ConcurrentHashMap
+//   CsrGraph.fromNode          Node form → CSR
+//   CsrGraph.copy              three array clones
+//   CsrGraph.toNodes           CSR → Node form
+//
+// Every clone is checked against the original via CsrGraph.sameAs.
+//
+//   java -Xmx8g CloneGraphBenchmark 1000000 10     # vertices, out-degree
+
+public class CloneGraphBenchmark {
+
+    public static void main(String[] args) {
+        int vertices = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int degree = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        System.out.printf("%,d vertices, %,d edges, %d CPUs%n", vertices, (long) vertices * degree,
+                Runtime.getRuntime().availableProcessors());
+
+        long before = BenchmarkSupport.usedAfterGc();
+        CsrGraph csr = randomGraph(vertices, degree, new Random(42));
+        long csrBytes = BenchmarkSupport.usedAfterGc() - before;
+
+        before = BenchmarkSupport.usedAfterGc();
+        Node start = csr.toNodes()[0];
+        long nodeBytes = BenchmarkSupport.usedAfterGc() - before;
+        System.out.printf("  %-20s %,10.1f MB%n", "Node form", nodeBytes / (1024.0 * 1024));
+        System.out.printf("  %-20s %,10.1f MB  (%.1fx smaller)%n", "CsrGraph", csrBytes / (1024.0 * 1024),
+                (double) nodeBytes / csrBytes);
+
+        CsrGraph expected = CsrGraph.fromNode(start); // BFS numbering, for checking Node clones
+        CloneGraph cloner = new CloneGraph();
+        for (int round = 0; round < 3; round++) { // first rounds are JIT warm-up
+            boolean last = round == 2;
+            long t0 = System.nanoTime();
+            Node sequential = cloner.cloneGraph(start);
+            long t1 = System.nanoTime();
+            check(expected, sequential);
+            sequential = null;
+
+            long t2 = System.nanoTime();
+            Node parallel = cloner.cloneGraphParallel(start);
+            long t3 = System.nanoTime();
+            check(expected, parallel);
+            parallel = null;
+
+            long t4 = System.nanoTime();
+            CsrGraph converted = CsrGraph.fromNode(start);
+            long t5 = System.nanoTime();
+            CsrGraph copy = csr.copy();
+            long t6 = System.nanoTime();
+            Node[] back = copy.toNodes();
+            long t7 = System.nanoTime();
+            if (!converted.sameAs(expected) || !copy.sameAs(csr)) {
+                throw new AssertionError("CSR clone differs");
+            }
+            Reference.reachabilityFence(back);
+
+            if (last) {
+                report("cloneGraph", t1 - t0);
+                report("cloneGraphParallel", t3 - t2);
+                report("CsrGraph.fromNode", t5 - t4);
+                report("CsrGraph.copy", t6 - t5);
+                report("CsrGraph.toNodes", t7 - t6);
+            }
+        }
+        Reference.reachabilityFence(start);
+    }
+
+    static CsrGraph randomGraph(int vertices, int degree, Random random) {
+        int[] vals = new int[vertices];
+        int[] offsets = new int[vertices + 1];
+        int[] targets = new int[vertices * degree];
+        for (int v = 0; v < vertices; v++) {
+            vals[v] = v;
+            int e = v * degree;
+            targets[e] = (v + 1) % vertices; // ring edge
+            for (int i = 1; i < degree; i++) {
+                targets[e + i] = random.nextInt(vertices);
+            }
+            offsets[v + 1] = e + degree;
+        }
+        return new CsrGraph(vals, offsets, targets);
+    }
+
+    // `expected` is fromNode(original): a faithful clone numbers its vertices
+    // in the same BFS order, so the CSR arrays must match exactly
+    static void check(CsrGraph expected, Node clone) {
+        if (!CsrGraph.fromNode(clone).sameAs(expected)) {
+            throw new AssertionError("Node clone differs");
+        }
+    }
+
+    static void report(String name, long nanos) {
+        System.out.printf("  %-20s %,10d ms%n", name, nanos / 1_000_000);
+    }
+}
@@ -0,0 +1,97 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+// Node of ConcurrentTrie: children are published with CAS, flags are volatile.
+class ConcurrentTrieNode {
+    final ConcurrentTrieNode[] children = new ConcurrentTrieNode[26]; // accessed only via ConcurrentTrie.CHILD
+    volatile boolean isEndOfWord;
+    volatile boolean hasWord; // a COMPLETED word ends here or below (for startsWith)
+}
+
+// Trie that many threads can read while others insert — no global lock.
+//
+// Trie.insert writes `children[i] = new TrieNode()` with plain stores: another
+// thread may never see the new node, or see it before its fields are set. So
+// today every reader has to be stopped to load new words. Here:
+//
+// - A child link is written ONCE with compareAndExchange (VarHandle on the
+//   plain array, no AtomicReferenceArray object per node). If two writers race
+//   to create the same child, one wins and the other continues down the
+//   winner's node: no lost subtrees.
+// - Readers load links with getAcquire, which pairs with the CAS: a node that
+//   is visible is fully constructed.
+// - isEndOfWord is volatile and written LAST, so search(word) turns true only
+//   once the whole path is in place.
+// - hasWord is set on the whole path after isEndOfWord, so startsWith()
+//   never reports the prefix of a word whose insert is still in progress.
+//
+// Reads are wait-free (one acquire load per char); inserts are lock-free.
+
+public class ConcurrentTrie {
+
+    static final VarHandle CHILD = MethodHandles.arrayElementVarHandle(ConcurrentTrieNode[].class);
+
+    private final ConcurrentTrieNode root = new ConcurrentTrieNode();
+
+    // Insert word into the Trie; safe to call from any thread
+    public void insert(String word) {
+        ConcurrentTrieNode[] path = new ConcurrentTrieNode[word.length() + 1];
+        ConcurrentTrieNode node = root;
+        path[0] = node;
+        for (int i = 0; i < word.length(); i++) {
+            int index = word.charAt(i) - 'a';
+            ConcurrentTrieNode child = (ConcurrentTrieNode) CHILD.getAcquire(node.children, index);
+            if (child == null) {
+                ConcurrentTrieNode created = new ConcurrentTrieNode();
+                ConcurrentTrieNode witness = (ConcurrentTrieNode) CHILD.compareAndExchange(node.children, index,
+                        null, created);
+                child = witness == null ? created : witness; // lost the race: use the winner's node
+            }
+            node = child;
+            path[i + 1] = node;
+        }
+        node.isEndOfWord = true;
+        for (ConcurrentTrieNode onPath : path) {
+            if (!onPath.hasWord) { // read first: no write traffic on hot nodes near the root
+                onPath.hasWord = true;
+            }
+        }
+    }
+
+    // Search for full word
+    public boolean search(String word) {
+        ConcurrentTrieNode node = searchPrefix(word);
+        return node != null && node.isEndOfWord;
+    }
+
+    // Check if any completely inserted word starts with the given prefix
+    public boolean startsWith(String prefix) {
+        ConcurrentTrieNode node = searchPrefix(prefix);
+        return node != null && node.hasWord;
+    }
+
+    private ConcurrentTrieNode searchPrefix(String word) {
+        ConcurrentTrieNode node = root;
+        for (int i = 0; i < word.length(); i++) {
+            node = (ConcurrentTrieNode) CHILD.getAcquire(node.children, word.charAt(i) - 'a');
+            if (node == null) {
+                return null;
+            }
+        }
+        return node;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        ConcurrentTrie trie = new ConcurrentTrie();
+        Thread writer = new Thread(() -> {
+            trie.insert("apple");
+            trie.insert("app");
+        });
+        writer.start();
+        writer.join();
+        System.out.println(trie.search("apple")); // true
+        System.out.println(trie.search("ap")); // false
+        System.out.println(trie.startsWith("ap")); // true
+        System.out.println(trie.search("app")); // true
+    }
+}
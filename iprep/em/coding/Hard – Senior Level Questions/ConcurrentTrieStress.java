@@ -0,0 +1,217 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Multi-threaded stress check + read-throughput benchmark for ConcurrentTrie.
+//
+// Stress: writer threads insert words (with many shared prefixes, so they race
+// to create the same nodes) and publish how many they've finished. Reader
+// threads concurrently check:
+//   - every word whose insert has RETURNED is found by search and startsWith
+//   - words that are never inserted are never found
+// At the end every word must be present.
+//
+// Benchmark: reads/second with writers running, ConcurrentTrie vs a Trie
+// behind one lock (the "stop all readers" approach).
+//
+//   java ConcurrentTrieStress [readers] [writers] [words per writer]
+
+public class ConcurrentTrieStress {
+
+    interface Dictionary {
+        void insert(String word);
+
+        boolean search(String word);
+
+        boolean startsWith(String prefix);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int readers = args.length > 0 ? Integer.parseInt(args[0]) : Math.max(2, Runtime.getRuntime().availableProcessors());
+        int writers = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        int wordsPerWriter = args.length > 2 ? Integer.parseInt(args[2]) : 200_000;
+
+        stress(readers, writers, wordsPerWriter);
+
+        ConcurrentTrie concurrent = new ConcurrentTrie();
+        long lockFree = benchmark("ConcurrentTrie", new Dictionary() {
+            public void insert(String word) {
+                concurrent.insert(word);
+            }
+
+            public boolean search(String word) {
+                return concurrent.search(word);
+            }
+
+            public boolean startsWith(String prefix) {
+                return concurrent.startsWith(prefix);
+            }
+        }, readers, writers, wordsPerWriter);
+
+        Trie trie = new Trie();
+        Object lock = new Object();
+        long locked = benchmark("synchronized Trie", new Dictionary() {
+            public void insert(String word) {
+                synchronized (lock) {
+                    trie.insert(word);
+                }
+            }
+
+            public boolean search(String word) {
+                synchronized (lock) {
+                    return trie.search(word);
+                }
+            }
+
+            public boolean startsWith(String prefix) {
+                synchronized (lock) {
+                    return trie.startsWith(prefix);
+                }
+            }
+        }, readers, writers, wordsPerWriter);
+        System.out.printf("speed-up: %.1fx%n", (double) lockFree / locked);
+    }
+
+    static void stress(int readers, int writers, int wordsPerWriter) throws InterruptedException {
+        ConcurrentTrie trie = new ConcurrentTrie();
+        String[][] words = new String[writers][];
+        for (int w = 0; w < writers; w++) {
+            words[w] = words(wordsPerWriter, 'a', 'y', new Random(w)); // never contains 'z'
+        }
+        String[] absent = words(10_000, 'a', 'z', new Random(-1));
+        for (int i = 0; i < absent.length; i++) {
+            absent[i] = absent[i] + "z"; // 'z' at the end: never inserted, shares prefixes with real words
+        }
+
+        AtomicLongArray published = new AtomicLongArray(writers); // words[w][0 .. published) are inserted
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicLong checks = new AtomicLong();
+        List<String> failures = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+
+        for (int w = 0; w < writers; w++) {
+            int writer = w;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < wordsPerWriter; i++) {
+                    trie.insert(words[writer][i]);
+                    published.lazySet(writer, i + 1);
+                }
+            }));
+        }
+        for (int r = 0; r < readers; r++) {
+            Random random = new Random(1000 + r);
+            threads.add(new Thread(() -> {
+                long local = 0;
+                while (!done.get()) {
+                    int writer = random.nextInt(writers);
+                    long count = published.get(writer);
+                    if (count > 0) {
+                        String word = words[writer][random.nextInt((int) count)];
+                        if (!trie.search(word) || !trie.startsWith(word.substring(0, 1 + random.nextInt(word.length())))) {
+                            fail(failures, "inserted word not visible: " + word);
+                        }
+                    }
+                    String missing = absent[random.nextInt(absent.length)];
+                    if (trie.search(missing)) {
+                        fail(failures, "never-inserted word found: " + missing);
+                    }
+                    local++;
+                }
+                checks.addAndGet(local);
+            }));
+        }
+
+        long start = System.nanoTime();
+        threads.forEach(Thread::start);
+        for (int w = 0; w < writers; w++) {
+            threads.get(w).join();
+        }
+        done.set(true);
+        for (Thread t : threads) {
+            t.join();
+        }
+        for (String[] writerWords : words) {
+            for (String word : writerWords) {
+                if (!trie.search(word)) {
+                    fail(failures, "word missing after all inserts: " + word);
+                }
+            }
+        }
+        System.out.printf("stress: %d writers x %,d words, %d readers, %,d reader checks in %d ms: %s%n", writers,
+                wordsPerWriter, readers, checks.get(), (System.nanoTime() - start) / 1_000_000,
+                failures.isEmpty() ? "OK" : "FAILED " + failures.subList(0, Math.min(5, failures.size())));
+        if (!failures.isEmpty()) {
+            throw new AssertionError(failures.size() + " failures");
+        }
+    }
+
+    // Reader throughput (lookups/s) while writers insert new vocabulary
+    static long benchmark(String name, Dictionary dictionary, int readers, int writers, int wordsPerWriter)
+            throws InterruptedException {
+        String[] preload = words(200_000, 'a', 'z', new Random(7));
+        for (String word : preload) {
+            dictionary.insert(word);
+        }
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicLong lookups = new AtomicLong();
+        AtomicInteger writersLeft = new AtomicInteger(writers);
+        CountDownLatch finished = new CountDownLatch(readers + writers);
+
+        for (int w = 0; w < writers; w++) {
+            String[] fresh = words(wordsPerWriter, 'a', 'z', new Random(100 + w));
+            new Thread(() -> {
+                for (String word : fresh) {
+                    dictionary.insert(word);
+                }
+                if (writersLeft.decrementAndGet() == 0) {
+                    done.set(true);
+                }
+                finished.countDown();
+            }).start();
+        }
+        long start = System.nanoTime();
+        for (int r = 0; r < readers; r++) {
+            Random random = new Random(r);
+            new Thread(() -> {
+                long local = 0;
+                while (!done.get()) {
+                    dictionary.search(preload[random.nextInt(preload.length)]);
+                    local++;
+                }
+                lookups.addAndGet(local);
+                finished.countDown();
+            }).start();
+        }
+        finished.await();
+        long perSecond = (long) (lookups.get() / ((System.nanoTime() - start) / 1e9));
+        System.out.printf("%-18s %,14d lookups/s with %d writers inserting%n", name, perSecond, writers);
+        return perSecond;
+    }
+
+    // Lowercase words in [from, to], built on shared prefixes so writers contend on nodes
+    static String[] words(int count, char from, char to, Random random) {
+        int letters = to - from + 1;
+        String[] words = new String[count];
+        for (int i = 0; i < count; i++) {
+            StringBuilder sb = new StringBuilder();
+            int length = 3 + random.nextInt(10);
+            for (int j = 0; j < length; j++) {
+                // First chars come from a small alphabet → heavy sharing near the root
+                sb.append((char) (from + random.nextInt(j < 2 ? Math.min(4, letters) : letters)));
+            }
+            words[i] = sb.toString();
+        }
+        return words;
+    }
+
+    private static void fail(List<String> failures, String message) {
+        synchronized (failures) {
+            failures.add(message);
+        }
+    }
+}
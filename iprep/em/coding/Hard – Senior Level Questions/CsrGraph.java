@@ -0,0 +1,156 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Graph in Compressed Sparse Row (CSR) form: three flat int arrays instead of
+// one Node object + one ArrayList + one Object[] per vertex.
+//
+//   vals[v]                                 value of vertex v
+//   targets[offsets[v] .. offsets[v+1]-1]   neighbors of vertex v (vertex ids)
+//
+//   Node form:  ~16 B Node + 24 B ArrayList + 16 B array header + 4 B per edge
+//               (+ a HashMap entry per vertex while cloning)
+//   CSR form:   8 B per vertex + 4 B per edge, no objects, nothing for the GC to trace
+//
+// Cloning a CSR graph is three Arrays.clone() calls (bulk memory copies).
+// fromNode()/toNodes() convert to and from the Node/List<Node> form of CloneGraph.
+// Instances are never modified after construction ⇒ safe to share across threads.
+
+public class CsrGraph {
+
+    final int[] vals;
+    final int[] offsets; // length vertexCount + 1
+    final int[] targets;
+
+    public CsrGraph(int[] vals, int[] offsets, int[] targets) {
+        if (offsets.length != vals.length + 1 || offsets[0] != 0 || offsets[vals.length] != targets.length) {
+            throw new IllegalArgumentException("offsets must have vertexCount + 1 entries, from 0 to targets.length");
+        }
+        this.vals = vals;
+        this.offsets = offsets;
+        this.targets = targets;
+    }
+
+    // BFS from `start` (vertex 0): every Node reachable from it becomes a vertex,
+    // numbered in BFS order. Two passes, so targets is allocated once at its exact size.
+    public static CsrGraph fromNode(Node start) {
+        if (start == null) {
+            return new CsrGraph(new int[0], new int[1], new int[0]);
+        }
+        Map<Node, Integer> ids = new IdentityHashMap<>();
+        List<Node> order = new ArrayList<>(); // doubles as the BFS queue
+        ids.put(start, 0);
+        order.add(start);
+        long edges = 0;
+        for (int head = 0; head < order.size(); head++) {
+            List<Node> neighbors = order.get(head).neighbors;
+            edges += neighbors.size();
+            for (Node neighbor : neighbors) {
+                if (!ids.containsKey(neighbor)) {
+                    ids.put(neighbor, order.size());
+                    order.add(neighbor);
+                }
+            }
+        }
+        if (edges > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Too many edges for int offsets: " + edges);
+        }
+
+        int n = order.size();
+        int[] vals = new int[n];
+        int[] offsets = new int[n + 1];
+        int[] targets = new int[(int) edges];
+        int e = 0;
+        for (int v = 0; v < n; v++) {
+            Node node = order.get(v);
+            vals[v] = node.val;
+            for (Node neighbor : node.neighbors) {
+                targets[e++] = ids.get(neighbor);
+            }
+            offsets[v + 1] = e;
+        }
+        return new CsrGraph(vals, offsets, targets);
+    }
+
+    // One Node per vertex (index = vertex id), neighbor lists sized exactly
+    public Node[] toNodes() {
+        int n = vals.length;
+        Node[] nodes = new Node[n];
+        for (int v = 0; v < n; v++) {
+            nodes[v] = new Node(vals[v], new ArrayList<>(offsets[v + 1] - offsets[v]));
+        }
+        for (int v = 0; v < n; v++) {
+            List<Node> neighbors = nodes[v].neighbors;
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                neighbors.add(nodes[targets[e]]);
+            }
+        }
+        return nodes;
+    }
+
+    // Deep copy: bulk array copies, no per-vertex work at all
+    public CsrGraph copy() {
+        return new CsrGraph(vals.clone(), offsets.clone(), targets.clone());
+    }
+
+    public int vertexCount() {
+        return vals.length;
+    }
+
+    public int edgeCount() {
+        return targets.length;
+    }
+
+    public int val(int vertex) {
+        return vals[vertex];
+    }
+
+    public int degree(int vertex) {
+        return offsets[vertex + 1] - offsets[vertex];
+    }
+
+    // i-th neighbor of `vertex`, 0 <= i < degree(vertex)
+    public int neighbor(int vertex, int i) {
+        return targets[offsets[vertex] + i];
+    }
+
+    public long sizeInBytes() {
+        return (long) (vals.length + offsets.length + targets.length) * Integer.BYTES;
+    }
+
+    // Same vertices, values and neighbor order
+    public boolean sameAs(CsrGraph other) {
+        return Arrays.equals(vals, other.vals) && Arrays.equals(offsets, other.offsets)
+                && Arrays.equals(targets, other.targets);
+    }
+
+    public static void main(String[] args) {
+        // Same graph as CloneGraph: 1-2, 1-4, 2-3, 3-4
+        Node node1 = new Node(1);
+        Node node2 = new Node(2);
+        Node node3 = new Node(3);
+        Node node4 = new Node(4);
+        node1.neighbors.add(node2);
+        node1.neighbors.add(node4);
+        node2.neighbors.add(node1);
+        node2.neighbors.add(node3);
+        node3.neighbors.add(node2);
+        node3.neighbors.add(node4);
+        node4.neighbors.add(node1);
+        node4.neighbors.add(node3);
+
+        CsrGraph graph = fromNode(node1);
+        System.out.println(Arrays.toString(graph.vals)); // [1, 2, 4, 3] (BFS order)
+        System.out.println(Arrays.toString(graph.offsets)); // [0, 2, 4, 6, 8]
+        System.out.println(Arrays.toString(graph.targets)); // [1, 2, 0, 3, 0, 3, 1, 2]
+
+        CsrGraph copy = graph.copy();
+        System.out.println(copy.sameAs(graph) && copy.targets != graph.targets); // true: equal, not shared
+
+        Node clone = copy.toNodes()[0];
+        System.out.println(clone.val + " -> " + clone.neighbors.get(0).val + ", " + clone.neighbors.get(1).val); // 1 -> 2, 4
+        System.out.println(fromNode(clone).sameAs(graph)); // true
+    }
+}
@@ -0,0 +1,190 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Immutable, compact radix trie built from a Trie (trie.freeze()).
+//
+// Trie spends a 26-slot TrieNode[] on EVERY node (≈ 144 bytes with the node
+// object), although almost all slots are null and most nodes have one child.
+// FrozenTrie fixes both:
+//
+// 1. Path compression (radix trie): chains of single-child, non-word nodes
+//    collapse into one edge with a multi-char label.
+//
+//        a ─ p ─ p ─ l ─ e        →      "app" ─ "le"
+//                ↑ "app"                   ↑ end     ↑ end
+//
+// 2. No objects: nodes are numbered in BFS order, so the children of node n
+//    are the contiguous ids childStart[n] .. childStart[n + 1] - 1, sorted by
+//    the first char of their label (binary search). Labels of all nodes are
+//    concatenated in one char[].
+//
+//   childStart[n]   first child id of node n        (length nodes + 1)
+//   labelStart[n]   offset of node n's edge label   (length nodes + 1)
+//   labels[]        all edge labels back to back
+//   terminal        bit n set ⇔ a word ends at node n
+//
+// ≈ 8 bytes + 2 bytes/label char + 1 bit per radix node.
+
+public class FrozenTrie {
+
+    final int nodeCount;
+    final int[] childStart;
+    final int[] labelStart;
+    final char[] labels;
+    final long[] terminal;
+
+    FrozenTrie(int nodeCount, int[] childStart, int[] labelStart, char[] labels, long[] terminal) {
+        this.nodeCount = nodeCount;
+        this.childStart = childStart;
+        this.labelStart = labelStart;
+        this.labels = labels;
+        this.terminal = terminal;
+    }
+
+    // Breadth-first over the TrieNode graph, one radix node per compressed edge.
+    // Node 0 is the root (empty label).
+    static FrozenTrie build(TrieNode root) {
+        List<TrieNode> queue = new ArrayList<>(); // radix node id → TrieNode at the end of its edge
+        queue.add(root);
+        int[] childStart = new int[16];
+        int[] labelStart = new int[16];
+        long[] terminal = new long[1];
+        if (root.isEndOfWord) {
+            terminal[0] = 1; // the empty word
+        }
+        StringBuilder labels = new StringBuilder();
+        int nextId = 1;
+
+        for (int id = 0; id < queue.size(); id++) {
+            TrieNode node = queue.get(id);
+            childStart = ensure(childStart, id + 2);
+            childStart[id] = nextId;
+            for (int c = 0; c < 26; c++) {
+                TrieNode child = node.children[c];
+                if (child == null) {
+                    continue;
+                }
+                labelStart = ensure(labelStart, nextId + 2);
+                labelStart[nextId] = labels.length();
+                labels.append((char) ('a' + c));
+                // Collapse the chain while it has exactly one child and no word ends on it
+                int only;
+                while (!child.isEndOfWord && (only = onlyChild(child)) >= 0) {
+                    labels.append((char) ('a' + only));
+                    child = child.children[only];
+                }
+                if (child.isEndOfWord) {
+                    if ((nextId >>> 6) >= terminal.length) {
+                        terminal = Arrays.copyOf(terminal, Math.max((nextId >>> 6) + 1, terminal.length * 2));
+                    }
+                    terminal[nextId >>> 6] |= 1L << nextId;
+                }
+                queue.add(child);
+                nextId++;
+            }
+        }
+        int nodes = nextId;
+        childStart[nodes] = nodes; // sentinel: the last node's children end here
+        labelStart = ensure(labelStart, nodes + 1);
+        labelStart[nodes] = labels.length();
+
+        char[] labelChars = new char[labels.length()];
+        labels.getChars(0, labels.length(), labelChars, 0);
+        return new FrozenTrie(nodes, Arrays.copyOf(childStart, nodes + 1), Arrays.copyOf(labelStart, nodes + 1),
+                labelChars, Arrays.copyOf(terminal, (nodes + 63) >>> 6));
+    }
+
+    // Index of the single non-null child, or -1 if there are zero or several
+    private static int onlyChild(TrieNode node) {
+        int only = -1;
+        for (int c = 0; c < 26; c++) {
+            if (node.children[c] != null) {
+                if (only >= 0) {
+                    return -1;
+                }
+                only = c;
+            }
+        }
+        return only;
+    }
+
+    private static int[] ensure(int[] array, int length) {
+        return length <= array.length ? array : Arrays.copyOf(array, Math.max(length, array.length * 2));
+    }
+
+    // Search for full word
+    public boolean search(String word) {
+        return walk(word, true);
+    }
+
+    // Check if any word starts with the given prefix
+    public boolean startsWith(String prefix) {
+        return walk(prefix, false);
+    }
+
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    private boolean walk(String key, boolean fullWord) {
+        int node = 0;
+        int pos = 0;
+        int length = key.length();
+        while (pos < length) {
+            node = findChild(node, key.charAt(pos));
+            if (node < 0) {
+                return false;
+            }
+            // Match the rest of the edge label
+            for (int i = labelStart[node], end = labelStart[node + 1]; i < end; i++, pos++) {
+                if (pos == length) {
+                    return !fullWord; // key ends in the middle of an edge: a prefix, not a word
+                }
+                if (labels[i] != key.charAt(pos)) {
+                    return false;
+                }
+            }
+        }
+        return !fullWord || isTerminal(node);
+    }
+
+    // Children are sorted by first label char: binary search
+    private int findChild(int node, char ch) {
+        int lo = childStart[node];
+        int hi = childStart[node + 1] - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            char first = labels[labelStart[mid]];
+            if (first < ch) {
+                lo = mid + 1;
+            } else if (first > ch) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private boolean isTerminal(int node) {
+        return (terminal[node >>> 6] & (1L << node)) != 0;
+    }
+
+    public static void main(String[] args) {
+        Trie trie = new Trie();
+        trie.insert("apple");
+        trie.insert("app");
+        trie.insert("apply");
+        trie.insert("bat");
+
+        FrozenTrie frozen = trie.freeze();
+        System.out.println(frozen.nodeCount() + " radix nodes"); // 6: root, "app", "l", "e", "y", "bat"
+        System.out.println(frozen.search("apple")); // true
+        System.out.println(frozen.search("appl")); // false
+        System.out.println(frozen.startsWith("appl")); // true (ends mid-edge)
+        System.out.println(frozen.search("app")); // true
+        System.out.println(frozen.startsWith("ba")); // true
+        System.out.println(frozen.search("bath")); // false
+    }
+}
@@ -0,0 +1,86 @@
+import java.lang.ref.Reference;
+import java.util.Random;
+
+// Memory and lookup latency: Trie (TrieNode[26] per node) vs FrozenTrie.
+//
+// Builds a dictionary of N random lowercase words (length 3-15, prefix-heavy
+// like real vocabularies), measures retained heap after a GC, then times
+// search() on a mix of hits and misses.
+//
+//   java -Xmx8g FrozenTrieBenchmark 1000000 5000000
+
+public class FrozenTrieBenchmark {
+
+    private static final int LOOKUPS = 2_000_000;
+
+    public static void main(String[] args) {
+        int[] sizes = { 1_000_000 };
+        if (args.length > 0) {
+            sizes = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                sizes[i] = Integer.parseInt(args[i]);
+            }
+        }
+
+        for (int words : sizes) {
+            String[] dictionary = BenchmarkSupport.dictionary(words, new Random(42));
+            String[] queries = queries(dictionary, new Random(7));
+
+            long before = BenchmarkSupport.usedAfterGc();
+            Trie trie = new Trie();
+            for (String word : dictionary) {
+                trie.insert(word);
+            }
+            long trieBytes = BenchmarkSupport.usedAfterGc() - before;
+
+            before = BenchmarkSupport.usedAfterGc();
+            FrozenTrie frozen = trie.freeze();
+            long frozenBytes = BenchmarkSupport.usedAfterGc() - before;
+
+            System.out.printf("%,d words, %,d radix nodes%n", words, frozen.nodeCount());
+            System.out.printf("  %-11s %,10.1f MB%n", "Trie", trieBytes / (1024.0 * 1024));
+            System.out.printf("  %-11s %,10.1f MB  (%.1fx smaller)%n", "FrozenTrie", frozenBytes / (1024.0 * 1024),
+                    (double) trieBytes / frozenBytes);
+
+            for (int round = 0; round < 3; round++) { // first rounds are JIT warm-up
+                long start = System.nanoTime();
+                int found = 0;
+                for (String q : queries) {
+                    if (trie.search(q)) {
+                        found++;
+                    }
+                }
+                long trieNanos = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                int frozenFound = 0;
+                for (String q : queries) {
+                    if (frozen.search(q)) {
+                        frozenFound++;
+                    }
+                }
+                long frozenNanos = System.nanoTime() - start;
+                if (found != frozenFound) {
+                    throw new AssertionError("results differ: " + found + " vs " + frozenFound);
+                }
+                System.out.printf("  round %d: Trie %.1f ns/search, FrozenTrie %.1f ns/search (%d hits)%n", round,
+                        (double) trieNanos / queries.length, (double) frozenNanos / queries.length, found);
+            }
+            Reference.reachabilityFence(trie);
+        }
+    }
+
+    // Half dictionary words, half misses (a word with its last char changed)
+    static String[] queries(String[] dictionary, Random random) {
+        String[] queries = new String[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            String word = dictionary[random.nextInt(dictionary.length)];
+            if (random.nextBoolean()) {
+                char last = (char) ('a' + random.nextInt(26));
+                word = word.substring(0, word.length() - 1) + last;
+            }
+            queries[i] = word;
+        }
+        return queries;
+    }
+}
@@ -0,0 +1,84 @@
+import java.util.Random;
+
+// Latency of Trie.searchFuzzy vs computing the edit distance to every word.
+//
+// Queries are dictionary words with 1-2 random typos. The brute-force baseline
+// runs on a few queries only (it scans the whole dictionary per query).
+//
+//   java -Xmx8g FuzzySearchBenchmark 5000000 2    # words, maxEdits
+
+public class FuzzySearchBenchmark {
+
+    public static void main(String[] args) {
+        int words = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int maxEdits = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        Random random = new Random(11);
+        String[] dictionary = BenchmarkSupport.dictionary(words, new Random(42));
+
+        Trie trie = new Trie();
+        for (String word : dictionary) {
+            trie.insert(word);
+        }
+
+        String[] queries = new String[2_000];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = typo(dictionary[random.nextInt(words)], 1 + random.nextInt(maxEdits), random);
+        }
+
+        for (int round = 0; round < 3; round++) { // first rounds are JIT warm-up
+            long start = System.nanoTime();
+            long found = 0;
+            for (String q : queries) {
+                found += trie.searchFuzzy(q, maxEdits).size();
+            }
+            double micros = (System.nanoTime() - start) / 1e3 / queries.length;
+            System.out.printf("searchFuzzy, %,d words, maxEdits=%d: %.1f µs/query (%.1f matches/query)%n", words,
+                    maxEdits, micros, (double) found / queries.length);
+        }
+
+        int bruteQueries = 20;
+        long start = System.nanoTime();
+        for (int i = 0; i < bruteQueries; i++) {
+            for (String word : dictionary) {
+                editDistance(queries[i], word);
+            }
+        }
+        System.out.printf("brute force: %.1f µs/query%n", (System.nanoTime() - start) / 1e3 / bruteQueries);
+    }
+
+    static String typo(String word, int edits, Random random) {
+        StringBuilder sb = new StringBuilder(word);
+        for (int e = 0; e < edits; e++) {
+            int at = random.nextInt(sb.length() + 1);
+            char ch = (char) ('a' + random.nextInt(26));
+            int kind = sb.length() == 0 ? 0 : random.nextInt(3);
+            if (kind == 0) {
+                sb.insert(at, ch);
+            } else if (kind == 1) {
+                sb.deleteCharAt(Math.min(at, sb.length() - 1));
+            } else {
+                sb.setCharAt(Math.min(at, sb.length() - 1), ch);
+            }
+        }
+        return sb.toString();
+    }
+
+    static int editDistance(String a, String b) {
+        int[] prev = new int[b.length() + 1];
+        int[] row = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            prev[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            row[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int substitute = prev[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                row[j] = Math.min(substitute, Math.min(prev[j], row[j - 1]) + 1);
+            }
+            int[] tmp = prev;
+            prev = row;
+            row = tmp;
+        }
+        return prev[b.length()];
+    }
+}
@@ -0,0 +1,305 @@
+import java.io.IOException;
+import java.lang.ref.Reference;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+
+// Binary tree navigated LAZILY, straight out of a memory-mapped file.
+//
+// SerializeDeserializeBinaryTree (or BinaryTreeCodec) can only rebuild the
+// WHOLE tree: n TreeNode objects and seconds of decoding, even if we then walk
+// one root-to-leaf path. Here every node is a fixed 12-byte record holding its
+// children's record numbers, so a child is found without decoding anything else:
+//
+//   [magic][version][nodeCount (long)]                 16-byte header
+//   record 0, 1, 2, ...   (preorder, little-endian)
+//     val    int
+//     left   int   record number, -1 = null (always this + 1 when present)
+//     right  int   record number, -1 = null
+//
+// Node views are created on demand: root().left().right().val() reads 3 records,
+// so a root-to-leaf walk touches O(depth) pages. The left child sits next to its
+// parent (same page); the OS pages in only what is visited.
+//
+// A single MappedByteBuffer is limited to 2 GB, so records are mapped in chunks
+// of 2^26 (768 MB): trees of up to 2^31 - 1 nodes (~24 GB) are supported.
+// Absolute reads don't touch the buffers' positions ⇒ safe to share across threads.
+
+public class MappedTree {
+
+    private static final int MAGIC = 0x54524545; // "TREE"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int RECORD_BYTES = 3 * Integer.BYTES;
+    private static final int CHUNK_SHIFT = 26;
+    private static final int CHUNK_RECORDS = 1 << CHUNK_SHIFT;
+    private static final int NULL = -1;
+
+    private final ByteBuffer[] chunks;
+    private final int nodeCount;
+
+    // Lazy view of one record: reads the file on every call, holds nothing else
+    public static final class Node {
+        private final MappedTree tree;
+        private final int index;
+
+        private Node(MappedTree tree, int index) {
+            this.tree = tree;
+            this.index = index;
+        }
+
+        public int val() {
+            return tree.val(index);
+        }
+
+        public Node left() {
+            return tree.node(tree.left(index));
+        }
+
+        public Node right() {
+            return tree.node(tree.right(index));
+        }
+
+        public int index() {
+            return index;
+        }
+    }
+
+    private MappedTree(ByteBuffer[] chunks, int nodeCount) {
+        this.chunks = chunks;
+        this.nodeCount = nodeCount;
+    }
+
+    public static MappedTree open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining()) {
+                if (channel.read(header) < 0) {
+                    break; // shorter than a header: rejected below
+                }
+            }
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Not a tree file (or unsupported version)");
+            }
+            long nodes = header.getLong();
+            if (nodes < 0 || nodes > Integer.MAX_VALUE || channel.size() < HEADER_BYTES + nodes * RECORD_BYTES) {
+                throw new IOException("Corrupt tree file: " + nodes + " nodes, " + channel.size() + " bytes");
+            }
+            // The mappings stay valid after the channel is closed
+            return new MappedTree(mapChunks(channel, (int) nodes, FileChannel.MapMode.READ_ONLY), (int) nodes);
+        }
+    }
+
+    // Written to a temp file and atomically renamed: readers never see half a file.
+    // Iterative preorder, so any depth works.
+    public static void write(TreeNode root, Path file) throws IOException {
+        int nodes = count(root);
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+            header.order(ByteOrder.LITTLE_ENDIAN).putInt(MAGIC).putInt(VERSION).putLong(nodes);
+            header.force();
+            ByteBuffer[] chunks = mapChunks(channel, nodes, FileChannel.MapMode.READ_WRITE);
+
+            // Stack entries: a node, and the record whose `right` must point to it (or NULL)
+            TreeNode[] stack = new TreeNode[64];
+            int[] rightOf = new int[64];
+            int top = 0;
+            if (root != null) {
+                stack[top] = root;
+                rightOf[top++] = NULL;
+            }
+            int next = 0;
+            while (top > 0) {
+                TreeNode node = stack[--top];
+                int parent = rightOf[top];
+                int index = next++;
+                ByteBuffer chunk = chunks[index >>> CHUNK_SHIFT];
+                int offset = (index & (CHUNK_RECORDS - 1)) * RECORD_BYTES;
+                chunk.putInt(offset, node.val);
+                chunk.putInt(offset + 4, node.left != null ? index + 1 : NULL); // left is visited next
+                chunk.putInt(offset + 8, NULL); // patched once the right subtree's root gets its number
+                if (parent != NULL) {
+                    chunks[parent >>> CHUNK_SHIFT].putInt((parent & (CHUNK_RECORDS - 1)) * RECORD_BYTES + 8, index);
+                }
+                if (top + 2 > stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                    rightOf = Arrays.copyOf(rightOf, rightOf.length * 2);
+                }
+                if (node.right != null) {
+                    stack[top] = node.right;
+                    rightOf[top++] = index;
+                }
+                if (node.left != null) {
+                    stack[top] = node.left;
+                    rightOf[top++] = NULL;
+                }
+            }
+            for (ByteBuffer chunk : chunks) {
+                ((MappedByteBuffer) chunk).force();
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // null for an empty tree
+    public Node root() {
+        return nodeCount == 0 ? null : new Node(this, 0);
+    }
+
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    // ----- allocation-free navigation by record number (Node views are built on these) -----
+
+    public int val(int index) {
+        return chunk(index).getInt(offset(index));
+    }
+
+    // Record number of the left child, or -1
+    public int left(int index) {
+        return chunk(index).getInt(offset(index) + 4);
+    }
+
+    // Record number of the right child, or -1
+    public int right(int index) {
+        return chunk(index).getInt(offset(index) + 8);
+    }
+
+    private Node node(int index) {
+        return index == NULL ? null : new Node(this, index);
+    }
+
+    private ByteBuffer chunk(int index) {
+        if (index < 0 || index >= nodeCount) {
+            throw new IndexOutOfBoundsException("node " + index + " of " + nodeCount);
+        }
+        return chunks[index >>> CHUNK_SHIFT];
+    }
+
+    private static int offset(int index) {
+        return (index & (CHUNK_RECORDS - 1)) * RECORD_BYTES;
+    }
+
+    private static ByteBuffer[] mapChunks(FileChannel channel, int nodes, FileChannel.MapMode mode)
+            throws IOException {
+        ByteBuffer[] chunks = new ByteBuffer[(int) ((nodes + (long) CHUNK_RECORDS - 1) >>> CHUNK_SHIFT)];
+        for (int c = 0; c < chunks.length; c++) {
+            int records = Math.min(CHUNK_RECORDS, nodes - c * CHUNK_RECORDS);
+            long position = HEADER_BYTES + (long) c * CHUNK_RECORDS * RECORD_BYTES;
+            chunks[c] = channel.map(mode, position, (long) records * RECORD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return chunks;
+    }
+
+    private static int count(TreeNode root) {
+        TreeNode[] stack = new TreeNode[64];
+        int top = 0;
+        int count = 0;
+        if (root != null) {
+            stack[top++] = root;
+        }
+        while (top > 0) {
+            TreeNode node = stack[--top];
+            count++;
+            if (top + 2 > stack.length) {
+                stack = Arrays.copyOf(stack, stack.length * 2);
+            }
+            if (node.right != null) {
+                stack[top++] = node.right;
+            }
+            if (node.left != null) {
+                stack[top++] = node.left;
+            }
+        }
+        return count;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int lookups = 100_000;
+
+        // A binary search tree of n random keys: a lookup is one root-to-leaf path
+        Random random = new Random(42);
+        int[] keys = new int[n];
+        TreeNode root = null;
+        for (int i = 0; i < n; i++) {
+            keys[i] = random.nextInt();
+            TreeNode fresh = new TreeNode(keys[i]);
+            if (root == null) {
+                root = fresh;
+                continue;
+            }
+            for (TreeNode node = root;;) {
+                if (keys[i] < node.val) {
+                    if (node.left == null) {
+                        node.left = fresh;
+                        break;
+                    }
+                    node = node.left;
+                } else {
+                    if (node.right == null) {
+                        node.right = fresh;
+                        break;
+                    }
+                    node = node.right;
+                }
+            }
+        }
+
+        // Before: the whole text has to be parsed back into TreeNodes
+        String text = new SerializeDeserializeBinaryTree().serialize(root);
+        long before = BenchmarkSupport.usedAfterGc();
+        long start = System.nanoTime();
+        TreeNode parsed = new SerializeDeserializeBinaryTree().deserialize(text);
+        long parseMillis = (System.nanoTime() - start) / 1_000_000;
+        long parsedBytes = BenchmarkSupport.usedAfterGc() - before;
+        Reference.reachabilityFence(parsed);
+        System.out.printf("deserialize():    %,6d ms, %,8.1f MB of TreeNodes%n", parseMillis,
+                parsedBytes / (1024.0 * 1024));
+
+        Path file = Files.createTempFile("tree", ".idx");
+        write(root, file);
+        start = System.nanoTime();
+        MappedTree tree = open(file);
+        System.out.printf("MappedTree.open(): %.2f ms, %,.1f MB file%n", (System.nanoTime() - start) / 1e6,
+                Files.size(file) / (1024.0 * 1024));
+
+        // After: each lookup reads only the records on its path
+        for (int round = 0; round < 3; round++) { // first rounds are JIT warm-up
+            long visited = 0;
+            int found = 0;
+            start = System.nanoTime();
+            for (int i = 0; i < lookups; i++) {
+                int key = keys[random.nextInt(n)];
+                for (Node node = tree.root(); node != null;) {
+                    visited++;
+                    int val = node.val();
+                    if (key == val) {
+                        found++;
+                        break;
+                    }
+                    node = key < val ? node.left() : node.right();
+                }
+            }
+            System.out.printf("lookup: %,6.0f ns, %.1f nodes read per lookup (%,d / %,d found)%n",
+                    (System.nanoTime() - start) / (double) lookups, (double) visited / lookups, found, lookups);
+        }
+
+        Node r = tree.root();
+        System.out.println(r.val() == root.val && r.left().val() == root.left.val
+                && r.right().val() == root.right.val); // true
+
+        Files.deleteIfExists(file);
+    }
+}
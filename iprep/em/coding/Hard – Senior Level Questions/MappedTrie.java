@@ -0,0 +1,210 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+// Trie index that is searched DIRECTLY in a memory-mapped file.
+//
+// Rebuilding a Trie with insert() at boot takes minutes for a big dictionary.
+// Instead, build once offline:
+//
+//   MappedTrie.write(trie.freeze(), path);
+//
+// and at startup:
+//
+//   MappedTrie index = MappedTrie.open(path);   // just an mmap: no parsing, no objects
+//
+// The file is FrozenTrie's arrays laid out back to back (little-endian, so
+// the file is portable):
+//
+//   [magic][version][nodeCount][labelCount]          4 ints
+//   childStart[nodeCount + 1]                        ints
+//   labelStart[nodeCount + 1]                        ints
+//   (padding to 8 bytes)
+//   terminal[(nodeCount + 63) / 64]                  longs
+//   labels[labelCount]                               chars
+//
+// search/startsWith read those arrays with absolute ByteBuffer gets. Pages are
+// loaded lazily by the OS on first touch and live in the page cache, so every
+// process on the host that maps the same file shares one copy in RAM.
+// Absolute reads don't touch the buffer's position ⇒ safe to share across threads.
+
+public class MappedTrie {
+
+    private static final int MAGIC = 0x54524945; // "TRIE"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 4 * Integer.BYTES;
+
+    private final ByteBuffer buffer;
+    private final int nodeCount;
+    private final int childStartOffset;
+    private final int labelStartOffset;
+    private final int terminalOffset;
+    private final int labelsOffset;
+
+    // The header is checked against the buffer size (in long arithmetic), so a
+    // truncated or corrupt file fails here with an IOException, not on a lookup
+    private MappedTrie(ByteBuffer buffer) throws IOException {
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not a trie index (or unsupported version)");
+        }
+        int nodes = buffer.getInt(8);
+        int labelCount = buffer.getInt(12);
+        long labelStart = HEADER_BYTES + (nodes + 1L) * Integer.BYTES;
+        long terminal = align8(labelStart + (nodes + 1L) * Integer.BYTES);
+        long labels = terminal + ((nodes + 63L) >>> 6) * Long.BYTES;
+        if (nodes < 0 || labelCount < 0 || buffer.capacity() < labels + (long) labelCount * Character.BYTES) {
+            throw new IOException("Corrupt trie index: " + nodes + " nodes, " + labelCount + " labels, "
+                    + buffer.capacity() + " bytes");
+        }
+        this.buffer = buffer;
+        this.nodeCount = nodes;
+        this.childStartOffset = HEADER_BYTES;
+        this.labelStartOffset = (int) labelStart;
+        this.terminalOffset = (int) terminal;
+        this.labelsOffset = (int) labels;
+    }
+
+    public static MappedTrie open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Not a trie index (larger than 2 GB): " + channel.size() + " bytes");
+            }
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new MappedTrie(mapped.order(ByteOrder.LITTLE_ENDIAN));
+        }
+    }
+
+    // Written to a temp file and atomically renamed: readers never see half a file
+    public static void write(FrozenTrie trie, Path file) throws IOException {
+        int nodes = trie.nodeCount;
+        long terminalOffset = align8(HEADER_BYTES + 2L * (nodes + 1) * Integer.BYTES);
+        long bytes = terminalOffset + (long) trie.terminal.length * Long.BYTES
+                + (long) trie.labels.length * Character.BYTES;
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IOException("Trie index larger than 2 GB is not supported: " + bytes + " bytes");
+        }
+
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+            mapped.order(ByteOrder.LITTLE_ENDIAN);
+            mapped.putInt(MAGIC).putInt(VERSION).putInt(nodes).putInt(trie.labels.length);
+            mapped.asIntBuffer().put(trie.childStart).put(trie.labelStart);
+            mapped.position((int) terminalOffset);
+            mapped.asLongBuffer().put(trie.terminal);
+            mapped.position((int) terminalOffset + trie.terminal.length * Long.BYTES);
+            mapped.asCharBuffer().put(trie.labels);
+            mapped.force();
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Search for full word
+    public boolean search(String word) {
+        return walk(word, true);
+    }
+
+    // Check if any word starts with the given prefix
+    public boolean startsWith(String prefix) {
+        return walk(prefix, false);
+    }
+
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    // Same walk as FrozenTrie, reading the arrays out of the mapping
+    private boolean walk(String key, boolean fullWord) {
+        int node = 0;
+        int pos = 0;
+        int length = key.length();
+        while (pos < length) {
+            node = findChild(node, key.charAt(pos));
+            if (node < 0) {
+                return false;
+            }
+            for (int i = labelStart(node), end = labelStart(node + 1); i < end; i++, pos++) {
+                if (pos == length) {
+                    return !fullWord; // key ends in the middle of an edge
+                }
+                if (label(i) != key.charAt(pos)) {
+                    return false;
+                }
+            }
+        }
+        return !fullWord || isTerminal(node);
+    }
+
+    private int findChild(int node, char ch) {
+        int lo = childStart(node);
+        int hi = childStart(node + 1) - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            char first = label(labelStart(mid));
+            if (first < ch) {
+                lo = mid + 1;
+            } else if (first > ch) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private int childStart(int node) {
+        return buffer.getInt(childStartOffset + node * Integer.BYTES);
+    }
+
+    private int labelStart(int node) {
+        return buffer.getInt(labelStartOffset + node * Integer.BYTES);
+    }
+
+    private char label(int index) {
+        return buffer.getChar(labelsOffset + index * Character.BYTES);
+    }
+
+    private boolean isTerminal(int node) {
+        return (buffer.getLong(terminalOffset + (node >>> 6) * Long.BYTES) & (1L << node)) != 0;
+    }
+
+    private static long align8(long offset) {
+        return (offset + 7) & ~7L;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int words = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        String[] dictionary = BenchmarkSupport.dictionary(words, new java.util.Random(42));
+
+        // Offline: build once and write the index
+        long start = System.nanoTime();
+        Trie trie = new Trie();
+        for (String word : dictionary) {
+            trie.insert(word);
+        }
+        System.out.printf("Trie built with insert(): %d ms%n", (System.nanoTime() - start) / 1_000_000);
+
+        Path file = Files.createTempFile("trie", ".idx");
+        write(trie.freeze(), file);
+        System.out.printf("Index file: %,.1f MB%n", Files.size(file) / (1024.0 * 1024));
+
+        // Startup: one mmap
+        start = System.nanoTime();
+        MappedTrie index = open(file);
+        System.out.printf("MappedTrie.open(): %.2f ms%n", (System.nanoTime() - start) / 1e6);
+
+        System.out.println(index.search(dictionary[0])); // true
+        System.out.println(index.startsWith(dictionary[0].substring(0, 2))); // true
+        System.out.println(index.search(dictionary[0] + "zzzz")); // false (almost surely)
+
+        Files.deleteIfExists(file);
+    }
+}
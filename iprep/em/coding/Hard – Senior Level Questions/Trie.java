@@ -1,3 +1,6 @@
+import java.util.ArrayList;
+import java.util.List;
+
 //     root
 //      |
 //      a
@@ -21,6 +24,23 @@ class TrieNode {
 
 public class Trie {
     private TrieNode root;
+    private BlockedBloomFilter filter; // optional: rejects most missing words before the walk
+
+    // A fuzzy-search hit: a dictionary word and its edit distance from the query
+    public static final class Match {
+        public final String word;
+        public final int distance;
+
+        Match(String word, int distance) {
+            this.word = word;
+            this.distance = distance;
+        }
+
+        @Override
+        public String toString() {
+            return word + "(" + distance + ")";
+        }
+    }
 
     public Trie() {
         root = new TrieNode(); // root is empty
@@ -37,19 +57,140 @@ public class Trie {
             node = node.children[index]; // go down the path
         }
         node.isEndOfWord = true; // mark end of word
+        if (filter != null) {
+            filter.put(word);
+        }
     }
 
     // Search for full word
     public boolean search(String word) {
+        if (filter != null && !filter.mightContain(word)) {
+            return false; // definitely absent: one cache line instead of a pointer chase
+        }
         TrieNode node = searchPrefix(word);
         return node != null && node.isEndOfWord;
     }
 
+    // Puts a Bloom filter in front of search(): words already in the trie are
+    // added now, later inserts keep it up to date. Size it for the final word count.
+    public void enableBloomFilter(long expectedWords, double falsePositiveRate) {
+        BlockedBloomFilter bloom = new BlockedBloomFilter(expectedWords, falsePositiveRate);
+        addWords(root, new StringBuilder(), bloom);
+        this.filter = bloom;
+    }
+
+    // Attaches a filter saved alongside this dictionary (BlockedBloomFilter.readFrom)
+    public void enableBloomFilter(BlockedBloomFilter bloom) {
+        this.filter = bloom;
+    }
+
+    public BlockedBloomFilter bloomFilter() {
+        return filter;
+    }
+
+    private void addWords(TrieNode node, StringBuilder path, BlockedBloomFilter bloom) {
+        if (node.isEndOfWord) {
+            bloom.put(path);
+        }
+        for (int c = 0; c < 26; c++) {
+            if (node.children[c] != null) {
+                path.append((char) ('a' + c));
+                addWords(node.children[c], path, bloom);
+                path.setLength(path.length() - 1);
+            }
+        }
+    }
+
     // Check if any word starts with the given prefix
     public boolean startsWith(String prefix) {
         return searchPrefix(prefix) != null;
     }
 
+    // Immutable compact copy for read-only use (see FrozenTrie)
+    public FrozenTrie freeze() {
+        return FrozenTrie.build(root);
+    }
+
+    // Compiles the current words into an Aho–Corasick matcher that finds all
+    // of them in a text in one pass. The matcher is an independent snapshot:
+    // words inserted later need a new buildMatcher().
+    public AhoCorasickMatcher buildMatcher() {
+        return AhoCorasickMatcher.build(root);
+    }
+
+    // Words within `maxEdits` insertions/deletions/substitutions of `word`,
+    // closest first (ties alphabetical).
+    //
+    // Walks the trie once, carrying one Levenshtein DP row per depth: the row
+    // for a node is computed from its parent's row, so words sharing a prefix
+    // share that work. Only cells within maxEdits of the diagonal can stay in
+    // budget, so each row computes at most 2·maxEdits+1 cells, and a subtree is
+    // pruned as soon as every cell of its row exceeds maxEdits.
+    public List<Match> searchFuzzy(String word, int maxEdits) {
+        int n = word.length();
+        int over = maxEdits + 1; // any value > maxEdits means "out of budget"
+        List<int[]> rows = new ArrayList<>();
+        int[] first = new int[n + 1];
+        for (int i = 0; i <= n; i++) {
+            first[i] = Math.min(i, over); // "" → word[0..i): i insertions
+        }
+        rows.add(first);
+
+        List<Match> matches = new ArrayList<>();
+        if (root.isEndOfWord && first[n] <= maxEdits) {
+            matches.add(new Match("", first[n]));
+        }
+        fuzzy(root, word, maxEdits, rows, new StringBuilder(), matches);
+        matches.sort((a, b) -> a.distance != b.distance ? a.distance - b.distance : a.word.compareTo(b.word));
+        return matches;
+    }
+
+    private void fuzzy(TrieNode node, String word, int maxEdits, List<int[]> rows, StringBuilder path,
+            List<Match> matches) {
+        int n = word.length();
+        int over = maxEdits + 1;
+        int depth = path.length() + 1; // depth of the children
+        if (rows.size() <= depth) {
+            rows.add(new int[n + 1]);
+        }
+        int[] prev = rows.get(depth - 1);
+        int[] row = rows.get(depth);
+        for (int c = 0; c < 26; c++) {
+            TrieNode child = node.children[c];
+            if (child == null) {
+                continue;
+            }
+            char ch = (char) ('a' + c);
+            // Band: only |i - depth| <= maxEdits can be in budget
+            int from = Math.max(1, depth - maxEdits);
+            int to = Math.min(n, depth + maxEdits);
+            row[0] = Math.min(depth, over);
+            int best = row[0];
+            for (int i = 1; i < Math.min(from, n + 1); i++) {
+                row[i] = over;
+            }
+            for (int i = from; i <= to; i++) {
+                int substitute = prev[i - 1] + (word.charAt(i - 1) == ch ? 0 : 1);
+                int delete = prev[i] + 1; // skip ch
+                int insert = row[i - 1] + 1; // skip word[i-1]
+                row[i] = Math.min(over, Math.min(substitute, Math.min(delete, insert)));
+                best = Math.min(best, row[i]);
+            }
+            for (int i = Math.max(from, to + 1); i <= n; i++) {
+                row[i] = over;
+            }
+            if (best > maxEdits) {
+                continue; // every continuation only gets worse: prune the subtree
+            }
+            path.append(ch);
+            if (child.isEndOfWord && row[n] <= maxEdits) {
+                matches.add(new Match(path.toString(), row[n]));
+            }
+            fuzzy(child, word, maxEdits, rows, path, matches);
+            path.setLength(path.length() - 1);
+        }
+    }
+
     // Helper to search prefix
     private TrieNode searchPrefix(String word) {
         TrieNode node = root;
@@ -70,5 +211,10 @@ public class Trie {
         System.out.println(trie.startsWith("app")); // true
         trie.insert("app");
         System.out.println(trie.search("app")); // true
+
+        trie.insert("apply");
+        trie.insert("ample");
+        trie.insert("maple");
+        System.out.println(trie.searchFuzzy("appel", 2)); // [app(2), apple(2), apply(2)]
     }
 }
@@ -0,0 +1,159 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+// Trimmed copy of "Hard – Senior Level Questions/BlockedBloomFilter.java" for
+// WordBreakDP (each folder compiles on its own). Same sizing, hashing and file
+// format: a key maps to ONE 512-bit block (one cache line) and all its k bits
+// live inside it, and writeTo()/readFrom() files work with either copy.
+// The FPP estimates and the demo live only in the full version; see the Hard
+// folder's doc/BlockedBloomFilter.md.
+//
+// put() is not thread-safe; mightContain() is safe once the filter is built.
+
+public class BlockedBloomFilter {
+
+    private static final int MAGIC = 0x424C4F4D; // "BLOM"
+    private static final int BLOCK_BITS = 512;
+    private static final int LONGS_PER_BLOCK = BLOCK_BITS / Long.SIZE;
+    private static final int BITS_PER_HASH = 64 / 9; // 9-bit bit positions per 64-bit hash
+    private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+    private static final int MAX_HASHES = 16;
+    private static final int MAX_BLOCKS = Integer.MAX_VALUE / LONGS_PER_BLOCK; // bits[] length must fit an int
+    private static final double BLOCK_OVERHEAD_PER_DECADE = 0.05; // +10% bits at 1%, +20% at 0.01%
+
+    private final long[] bits;
+    private final int blocks;
+    private final int hashes; // k
+    private long count; // keys added
+
+    public BlockedBloomFilter(long expectedKeys, double falsePositiveRate) {
+        if (expectedKeys <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("need expectedKeys > 0 and 0 < falsePositiveRate < 1");
+        }
+        // Classic sizing: m = -n ln p / (ln 2)^2 bits, k = m/n · ln 2, plus room for uneven blocks
+        double bitsNeeded = -expectedKeys * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        double blockOverhead = 1 + BLOCK_OVERHEAD_PER_DECADE * Math.log10(1 / falsePositiveRate);
+        double blocksNeeded = Math.max(1, Math.ceil(blockOverhead * bitsNeeded / BLOCK_BITS));
+        if (blocksNeeded > MAX_BLOCKS) {
+            throw new IllegalArgumentException("filter would need " + (long) blocksNeeded + " blocks, max " + MAX_BLOCKS);
+        }
+        this.blocks = (int) blocksNeeded;
+        this.hashes = (int) Math.max(1, Math.min(MAX_HASHES, Math.round(bitsNeeded / expectedKeys * Math.log(2))));
+        this.bits = new long[blocks * LONGS_PER_BLOCK];
+    }
+
+    private BlockedBloomFilter(long[] bits, int hashes, long count) {
+        this.bits = bits;
+        this.blocks = bits.length / LONGS_PER_BLOCK;
+        this.hashes = hashes;
+        this.count = count;
+    }
+
+    public void put(CharSequence key) {
+        long h = hash(key, 0, key.length());
+        int base = block(h);
+        long positions = h;
+        for (int i = 0; i < hashes; i++) {
+            if (i % BITS_PER_HASH == 0 && i > 0) {
+                positions = mix(h + i * GOLDEN); // used up 7 x 9 bits: draw fresh ones
+            }
+            int bit = (int) positions & (BLOCK_BITS - 1);
+            positions >>>= 9;
+            bits[base + (bit >>> 6)] |= 1L << bit;
+        }
+        count++;
+    }
+
+    // Tests key[from, to) without creating a substring
+    public boolean mightContain(CharSequence key, int from, int to) {
+        long h = hash(key, from, to);
+        int base = block(h);
+        long positions = h;
+        for (int i = 0; i < hashes; i++) {
+            if (i % BITS_PER_HASH == 0 && i > 0) {
+                positions = mix(h + i * GOLDEN);
+            }
+            int bit = (int) positions & (BLOCK_BITS - 1);
+            positions >>>= 9;
+            if ((bits[base + (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Calibration: the fraction of `absentKeys` (keys known NOT to have been
+    // added) that still get a "maybe". mightContain() keeps no statistics, so
+    // a rejected probe writes nothing.
+    public double measureFalsePositiveRate(Iterable<? extends CharSequence> absentKeys) {
+        long probes = 0;
+        long falsePositives = 0;
+        for (CharSequence key : absentKeys) {
+            probes++;
+            if (mightContain(key, 0, key.length())) {
+                falsePositives++;
+            }
+        }
+        return probes == 0 ? 0 : (double) falsePositives / probes;
+    }
+
+    public long keyCount() {
+        return count;
+    }
+
+    // ----- serialization (store it next to the dictionary) -----
+
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(hashes);
+        out.writeInt(blocks);
+        out.writeLong(count);
+        for (long word : bits) {
+            out.writeLong(word);
+        }
+    }
+
+    public static BlockedBloomFilter readFrom(DataInput in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a Bloom filter");
+        }
+        int hashes = in.readInt();
+        int blocks = in.readInt();
+        long count = in.readLong();
+        // hashes <= 0 would accept every key; a bad block count would throw or overflow
+        if (hashes < 1 || hashes > MAX_HASHES || blocks < 1 || blocks > MAX_BLOCKS || count < 0) {
+            throw new IOException("Corrupt Bloom filter: k=" + hashes + ", " + blocks + " blocks, " + count + " keys");
+        }
+        long[] bits = new long[blocks * LONGS_PER_BLOCK];
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] = in.readLong();
+        }
+        return new BlockedBloomFilter(bits, hashes, count);
+    }
+
+    // ----- hashing -----
+
+    private int block(long h) {
+        long mixed = mix(h ^ GOLDEN);
+        return (int) (((mixed >>> 32) * blocks) >>> 32) * LONGS_PER_BLOCK;
+    }
+
+    // FNV-1a over the chars + a murmur3 finalizer
+    private static long hash(CharSequence key, int from, int to) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = from; i < to; i++) {
+            h = (h ^ key.charAt(i)) * 0x100000001B3L;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,206 @@
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Warm restart for LRU caches: snapshot contents + recency order to a
+// memory-mapped file, and load it back on startup.
+//
+// File layout (native byte order, all ints):
+//   [magic][version][capacity][count]
+//   keys[count]     eldest → newest
+//   values[count]   same order
+//
+// Keys and values are stored as two contiguous int arrays so that restoring an
+// IntLRUCache is two bulk array copies out of the mapping + one pass to rebuild
+// the hash index (10M entries: well under a second). The file is written to a
+// temp file and atomically renamed, so a crash mid-snapshot never leaves a
+// half-written snapshot behind.
+//
+// Caches are not thread-safe: save() synchronizes on the cache, so code that
+// shares a cache across threads must synchronize on it too.
+
+public class CacheSnapshot {
+
+    private static final int MAGIC = 0x4C525543; // "LRUC"
+    private static final int VERSION = 1;
+    private static final int HEADER_INTS = 4;
+
+    public static void save(IntLRUCache cache, Path file) throws IOException {
+        synchronized (cache) {
+            int count = cache.size();
+            write(file, cache.capacity(), count, (keys, values) -> cache.exportTo(keys, values));
+        }
+    }
+
+    public static IntLRUCache restore(Path file) throws IOException {
+        return restore(file, IntLRUCache.MAX_CAPACITY);
+    }
+
+    // Rejects a snapshot whose capacity is above `maxCapacity`: the header is
+    // untrusted, and the cache allocates its full capacity up front
+    public static IntLRUCache restore(Path file, int maxCapacity) throws IOException {
+        return read(file, Math.min(maxCapacity, IntLRUCache.MAX_CAPACITY), (capacity, count, keys, values) -> {
+            IntLRUCache cache = new IntLRUCache(capacity);
+            cache.bulkLoad(keys, values, count);
+            return cache;
+        });
+    }
+
+    // LRUCache iterates in access order (eldest first) without changing it
+    public static void save(LRUCache cache, int capacity, Path file) throws IOException {
+        synchronized (cache) {
+            write(file, capacity, cache.size(), (keys, values) -> {
+                for (Map.Entry<Integer, Integer> e : cache.entrySet()) {
+                    keys.put(e.getKey());
+                    values.put(e.getValue());
+                }
+            });
+        }
+    }
+
+    // LinkedHashMap has no bulk-load hook, so entries are inserted one by one, in
+    // order (no evictions: count <= capacity). LRUCache(capacity) is not presized
+    // for its load factor, so the table still rehashes as it fills. Use
+    // IntLRUCache for big caches. `maxCapacity` bounds the untrusted header.
+    public static LRUCache restoreLRUCache(Path file, int maxCapacity) throws IOException {
+        return read(file, maxCapacity, (capacity, count, keys, values) -> {
+            LRUCache cache = new LRUCache(capacity);
+            for (int i = 0; i < count; i++) {
+                cache.put(keys.get(), values.get());
+            }
+            return cache;
+        });
+    }
+
+    // Snapshot every `period` and once more on JVM shutdown
+    public static ScheduledExecutorService snapshotPeriodically(IntLRUCache cache, Path file, long period,
+            TimeUnit unit) {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "cache-snapshot");
+            t.setDaemon(true);
+            return t;
+        });
+        Runnable snapshot = () -> {
+            try {
+                save(cache, file);
+            } catch (IOException e) {
+                System.err.println("Cache snapshot failed: " + e);
+            }
+        };
+        scheduler.scheduleWithFixedDelay(snapshot, period, period, unit);
+        Runtime.getRuntime().addShutdownHook(new Thread(snapshot, "cache-snapshot-on-shutdown"));
+        return scheduler;
+    }
+
+    // ----- file format -----
+
+    interface Exporter {
+        void export(IntBuffer keys, IntBuffer values);
+    }
+
+    interface Importer<C> {
+        C load(int capacity, int count, IntBuffer keys, IntBuffer values);
+    }
+
+    private static void write(Path file, int capacity, int count, Exporter exporter) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        long bytes = (HEADER_INTS + 2L * count) * Integer.BYTES;
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+            IntBuffer ints = mapped.order(ByteOrder.nativeOrder()).asIntBuffer();
+            ints.put(MAGIC).put(VERSION).put(capacity).put(count);
+            exporter.export(slice(ints, HEADER_INTS, count), slice(ints, HEADER_INTS + count, count));
+            mapped.force();
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // The header is validated before the cache is allocated: count against the
+    // file length, capacity against `maxCapacity`. A truncated or corrupt file
+    // fails with an IOException.
+    private static <C> C read(Path file, int maxCapacity, Importer<C> importer) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_INTS * Integer.BYTES) {
+                throw new IOException("Not a cache snapshot (too short): " + file);
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            IntBuffer ints = mapped.order(ByteOrder.nativeOrder()).asIntBuffer();
+            if (ints.get(0) != MAGIC || ints.get(1) != VERSION) {
+                throw new IOException("Not a cache snapshot (or unsupported version): " + file);
+            }
+            int capacity = ints.get(2);
+            int count = ints.get(3);
+            if (capacity <= 0 || capacity > maxCapacity || count < 0 || count > capacity
+                    || size != (HEADER_INTS + 2L * count) * Integer.BYTES) {
+                throw new IOException("Corrupt cache snapshot: capacity " + capacity + ", " + count + " entries, "
+                        + size + " bytes: " + file);
+            }
+            return importer.load(capacity, count, slice(ints, HEADER_INTS, count),
+                    slice(ints, HEADER_INTS + count, count));
+        }
+    }
+
+    private static IntBuffer slice(IntBuffer ints, int from, int length) {
+        IntBuffer view = ints.duplicate();
+        view.position(from).limit(from + length);
+        return view.slice();
+    }
+
+    public static void main(String[] args) throws IOException {
+        int entries = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        Path file = Files.createTempFile("lru", ".snapshot");
+
+        IntLRUCache cache = new IntLRUCache(entries);
+        for (int i = 0; i < entries; i++) {
+            cache.put(i, i * 2);
+        }
+        cache.get(0); // key 0 becomes most recently used
+
+        long start = System.nanoTime();
+        save(cache, file);
+        System.out.printf("Saved %,d entries in %d ms (%,d MB)%n", entries, (System.nanoTime() - start) / 1_000_000,
+                Files.size(file) / (1024 * 1024));
+
+        start = System.nanoTime();
+        IntLRUCache restored = restore(file);
+        System.out.printf("Restored %,d entries in %d ms%n", restored.size(), (System.nanoTime() - start) / 1_000_000);
+
+        System.out.println("get(0) = " + restored.get(0)); // 0
+        System.out.println("get(" + (entries - 1) + ") = " + restored.get(entries - 1));
+        restored.put(-1, -1); // evicts key 1: the eldest, recency order survived the restart
+        System.out.println("get(1) after one insert = " + restored.get(1)); // -1
+
+        // A truncated snapshot is rejected before anything is allocated
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(file) / 2);
+        }
+        try {
+            restore(file);
+        } catch (IOException e) {
+            System.out.println(e.getMessage()); // Corrupt cache snapshot: ...
+        }
+
+        // So is a header claiming an impossible capacity (16-byte file, capacity 2^31 - 1, no entries)
+        CacheSnapshot.write(file, Integer.MAX_VALUE, 0, (keys, values) -> {
+        });
+        try {
+            restore(file);
+        } catch (IOException e) {
+            System.out.println(e.getMessage()); // Corrupt cache snapshot: capacity 2147483647, ...
+        }
+
+        Files.deleteIfExists(file);
+    }
+}
@@ -0,0 +1,90 @@
+// Immutable snapshot of a cache's counters. Caches build one on demand in
+// stats(), so reading it never blocks the cache.
+
+public final class CacheStats {
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount; // removed because the cache was full
+    private final long evictionWeight; // total weight of evicted entries (weighted caches)
+    private final long expirationCount; // removed because their TTL passed
+    private final long loadSuccessCount;
+    private final long loadFailureCount;
+    private final long totalLoadTimeNanos;
+    private final long coalescedLoadCount; // misses that joined a load already in flight
+
+    public CacheStats(long hitCount, long missCount, long evictionCount, long expirationCount) {
+        this(hitCount, missCount, evictionCount, 0, expirationCount, 0, 0, 0, 0);
+    }
+
+    public CacheStats(long hitCount, long missCount, long evictionCount, long evictionWeight,
+            long expirationCount, long loadSuccessCount, long loadFailureCount, long totalLoadTimeNanos, long coalescedLoadCount) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.evictionWeight = evictionWeight;
+        this.expirationCount = expirationCount;
+        this.loadSuccessCount = loadSuccessCount;
+        this.loadFailureCount = loadFailureCount;
+        this.totalLoadTimeNanos = totalLoadTimeNanos;
+        this.coalescedLoadCount = coalescedLoadCount;
+    }
+
+    public long hitCount() {
+        return hitCount;
+    }
+
+    public long missCount() {
+        return missCount;
+    }
+
+    public long requestCount() {
+        return hitCount + missCount;
+    }
+
+    public double hitRate() {
+        long requests = requestCount();
+        return requests == 0 ? 1.0 : (double) hitCount / requests;
+    }
+
+    public long evictionCount() {
+        return evictionCount;
+    }
+
+    public long evictionWeight() {
+        return evictionWeight;
+    }
+
+    public long expirationCount() {
+        return expirationCount;
+    }
+
+    public long loadCount() {
+        return loadSuccessCount + loadFailureCount;
+    }
+
+    public long loadFailureCount() {
+        return loadFailureCount;
+    }
+
+    public long totalLoadTimeNanos() {
+        return totalLoadTimeNanos;
+    }
+
+    // Average time spent loading a value (nanos)
+    public double averageLoadPenalty() {
+        long loads = loadCount();
+        return loads == 0 ? 0 : (double) totalLoadTimeNanos / loads;
+    }
+
+    public long coalescedLoadCount() {
+        return coalescedLoadCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("hits=%d misses=%d hitRate=%.2f evictions=%d evictedWeight=%d expirations=%d loads=%d "
+                + "loadFailures=%d avgLoadPenalty=%.0fns coalesced=%d", hitCount, missCount, hitRate(),
+                evictionCount, evictionWeight, expirationCount, loadCount(), loadFailureCount, averageLoadPenalty(),
+                coalescedLoadCount);
+    }
+}
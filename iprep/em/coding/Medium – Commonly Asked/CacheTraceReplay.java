@@ -0,0 +1,99 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.Stream;
+
+// Replays a key trace against LRUCache and WTinyLfuCache and reports hit ratios.
+//
+// Trace file: one integer key per line (e.g. exported from access logs).
+// Every access is "get, and put on miss" — the usual cache-aside pattern.
+//
+//   java CacheTraceReplay trace.txt 10000     # file, cache capacity
+//   java CacheTraceReplay                     # synthetic Zipf + scans trace
+
+public class CacheTraceReplay {
+
+    interface Cache {
+        int get(int key);
+
+        void put(int key, int value);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int[] trace;
+        int capacity;
+        if (args.length > 0) {
+            trace = readTrace(Paths.get(args[0]));
+            capacity = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        } else {
+            trace = syntheticTrace(2_000_000, 100_000, 0.99, new Random(42));
+            capacity = 2_000;
+        }
+
+        LRUCache lru = new LRUCache(capacity);
+        WTinyLfuCache tinyLfu = new WTinyLfuCache(capacity);
+
+        System.out.printf("accesses=%,d capacity=%,d%n", trace.length, capacity);
+        System.out.printf("%-12s %8.2f%%%n", "LRU", 100 * replay(trace, new Cache() {
+            public int get(int key) {
+                return lru.get(key);
+            }
+
+            public void put(int key, int value) {
+                lru.put(key, value);
+            }
+        }));
+        System.out.printf("%-12s %8.2f%%%n", "W-TinyLFU", 100 * replay(trace, new Cache() {
+            public int get(int key) {
+                return tinyLfu.get(key);
+            }
+
+            public void put(int key, int value) {
+                tinyLfu.put(key, value);
+            }
+        }));
+    }
+
+    static double replay(int[] trace, Cache cache) {
+        long hits = 0;
+        for (int key : trace) {
+            if (cache.get(key) != -1) {
+                hits++;
+            } else {
+                cache.put(key, 1);
+            }
+        }
+        return (double) hits / trace.length;
+    }
+
+    static int[] readTrace(Path file) throws IOException {
+        try (Stream<String> lines = Files.lines(file)) {
+            return lines.map(String::trim).filter(s -> !s.isEmpty()).mapToInt(Integer::parseInt).toArray();
+        }
+    }
+
+    // Zipf-distributed hot traffic with a one-time scan of never-reused keys every 200k accesses
+    static int[] syntheticTrace(int length, int distinctKeys, double skew, Random random) {
+        double[] cumulative = new double[distinctKeys];
+        double sum = 0;
+        for (int i = 0; i < distinctKeys; i++) {
+            sum += 1 / Math.pow(i + 1, skew);
+            cumulative[i] = sum;
+        }
+
+        int[] trace = new int[length];
+        int scanKey = distinctKeys;
+        for (int i = 0; i < length; i++) {
+            if (i % 200_000 >= 180_000) {
+                trace[i] = scanKey++; // scan: each key seen exactly once
+            } else {
+                int rank = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+                trace[i] = rank >= 0 ? rank : -rank - 1;
+            }
+        }
+        return trace;
+    }
+}
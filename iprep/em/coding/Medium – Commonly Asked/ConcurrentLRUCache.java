@@ -0,0 +1,229 @@
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Thread-safe LRU cache whose reads scale with cores.
+//
+// LRUCache (LinkedHashMap in access order) MUTATES its list on every get(),
+// so wrapping it in `synchronized` serializes all readers. Here:
+//
+//   get(): ConcurrentHashMap lookup (no lock) + drop the node into a small
+//          per-thread-stripe ring buffer ("this was read"). Lossy: if the
+//          buffer is busy we simply forget the hint. No lock on the read path.
+//
+//   The buffer is drained in batches by whoever wins segment.tryLock():
+//   recency is replayed onto the segment's LRU list 16 reads at a time.
+//
+//   put(): locks only the key's segment; each segment has its own LRU list
+//          and evicts its own least-recently-used entry.
+//
+// LRU order is therefore approximate (per segment, with batched recency),
+// which is the trade every production cache (e.g. Caffeine) makes.
+
+public class ConcurrentLRUCache {
+
+    private static final int READ_BUFFER_SIZE = 16; // power of two
+    private static final int READ_BUFFER_MASK = READ_BUFFER_SIZE - 1;
+
+    static final class Node {
+        final int key;
+        volatile int value;
+        Node prev, next; // guarded by the segment lock
+        boolean removed; // guarded by the segment lock
+
+        Node(int key, int value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    // Lossy ring of recently read nodes
+    static final class ReadBuffer {
+        final AtomicReferenceArray<Node> slots = new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+        final AtomicInteger writes = new AtomicInteger();
+    }
+
+    final class Segment {
+        final ReentrantLock lock = new ReentrantLock();
+        final ReadBuffer[] readBuffers;
+        final int capacity;
+        final Node head = new Node(0, 0); // eldest side (sentinel)
+        final Node tail = new Node(0, 0); // newest side (sentinel)
+        int size;
+
+        Segment(int capacity, int stripes) {
+            this.capacity = capacity;
+            this.readBuffers = new ReadBuffer[stripes];
+            for (int i = 0; i < stripes; i++) {
+                readBuffers[i] = new ReadBuffer();
+            }
+            head.next = tail;
+            tail.prev = head;
+        }
+
+        void recordRead(Node node) {
+            ReadBuffer buffer = readBuffers[stripe() & (readBuffers.length - 1)];
+            int index = buffer.writes.getAndIncrement();
+            buffer.slots.lazySet(index & READ_BUFFER_MASK, node);
+            // Buffer just filled up: try to drain, but never wait for the lock
+            if ((index & READ_BUFFER_MASK) == READ_BUFFER_MASK && lock.tryLock()) {
+                try {
+                    drainReadBuffers();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+
+        // Lock held. Replays buffered reads: move each node to the newest end.
+        void drainReadBuffers() {
+            for (ReadBuffer buffer : readBuffers) {
+                for (int i = 0; i < READ_BUFFER_SIZE; i++) {
+                    Node node = buffer.slots.getAndSet(i, null);
+                    if (node != null && !node.removed) {
+                        unlink(node);
+                        linkLast(node);
+                    }
+                }
+            }
+        }
+
+        void put(int key, int value) {
+            lock.lock();
+            try {
+                drainReadBuffers();
+                Node existing = map.get(key);
+                if (existing != null) {
+                    existing.value = value;
+                    unlink(existing);
+                    linkLast(existing);
+                    return;
+                }
+                Node node = new Node(key, value);
+                map.put(key, node);
+                linkLast(node);
+                size++;
+                if (size > capacity) {
+                    Node eldest = head.next;
+                    unlink(eldest);
+                    eldest.removed = true;
+                    map.remove(eldest.key, eldest);
+                    size--;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void unlink(Node node) {
+            node.prev.next = node.next;
+            node.next.prev = node.prev;
+        }
+
+        void linkLast(Node node) {
+            node.prev = tail.prev;
+            node.next = tail;
+            tail.prev.next = node;
+            tail.prev = node;
+        }
+    }
+
+    private final ConcurrentHashMap<Integer, Node> map;
+    private final Segment[] segments;
+
+    public ConcurrentLRUCache(int capacity) {
+        this(capacity, 4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    // concurrency = number of segments wanted (rounded to a power of two)
+    public ConcurrentLRUCache(int capacity, int concurrency) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive"); // 0 would mean 0 segments
+        }
+        // Never more segments than entries
+        int segmentCount = Math.min(nextPowerOfTwo(concurrency), Integer.highestOneBit(capacity));
+        int stripes = Math.min(nextPowerOfTwo(concurrency), nextPowerOfTwo(Runtime.getRuntime().availableProcessors()));
+        this.map = new ConcurrentHashMap<>(capacity, 0.75f, concurrency);
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            // Spread capacity evenly; the first (capacity % n) segments get one extra
+            int segmentCapacity = capacity / segmentCount + (i < capacity % segmentCount ? 1 : 0);
+            segments[i] = new Segment(segmentCapacity, stripes);
+        }
+    }
+
+    public int get(int key) {
+        Node node = map.get(key);
+        if (node == null) {
+            return -1;
+        }
+        segmentFor(key).recordRead(node);
+        return node.value;
+    }
+
+    public void put(int key, int value) {
+        segmentFor(key).put(key, value);
+    }
+
+    public int size() {
+        return map.size();
+    }
+
+    private Segment segmentFor(int key) {
+        int h = key * 0x9E3779B9; // spread sequential keys
+        return segments[(h ^ (h >>> 16)) & (segments.length - 1)];
+    }
+
+    private static int stripe() {
+        long id = Thread.currentThread().getId();
+        return (int) (id ^ (id >>> 32)) * 0x9E3779B9 >>> 16;
+    }
+
+    private static int nextPowerOfTwo(int n) {
+        return n <= 1 ? 1 : Integer.highestOneBit(n - 1) << 1;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        ConcurrentLRUCache cache = new ConcurrentLRUCache(2, 1); // one segment ⇒ exact LRU, like LRUCache
+        cache.put(1, 1);
+        cache.put(2, 2);
+        System.out.println(cache.get(1)); // 1
+        cache.put(3, 3);
+        System.out.println(cache.get(2)); // -1
+        cache.put(4, 4);
+        System.out.println(cache.get(1)); // -1
+        System.out.println(cache.get(3)); // 3
+        System.out.println(cache.get(4)); // 4
+
+        // Read scalability: N threads reading a shared hot set
+        ConcurrentLRUCache shared = new ConcurrentLRUCache(100_000);
+        for (int i = 0; i < 100_000; i++) {
+            shared.put(i, i);
+        }
+        int threads = Runtime.getRuntime().availableProcessors();
+        long[] reads = new long[threads];
+        Thread[] workers = new Thread[threads];
+        long deadline = System.nanoTime() + 1_000_000_000L;
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            workers[t] = new Thread(() -> {
+                int key = id;
+                long n = 0;
+                while (System.nanoTime() < deadline) {
+                    shared.get(key);
+                    key = (key + 7919) % 100_000;
+                    n++;
+                }
+                reads[id] = n;
+            });
+            workers[t].start();
+        }
+        long total = 0;
+        for (int t = 0; t < threads; t++) {
+            workers[t].join();
+            total += reads[t];
+        }
+        System.out.printf("%d threads: %,d reads/sec%n", threads, total);
+    }
+}
@@ -0,0 +1,214 @@
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Hierarchical timing wheel for entry expiration (no thread: the cache
+// advances it on every operation).
+//
+//   level 0: 64 buckets x ~1.07s   (2^30 ns)  → next ~68 seconds
+//   level 1: 64 buckets x ~68.7s   (2^36 ns)  → next ~73 minutes
+//   level 2: 64 buckets x ~73min   (2^42 ns)  → next ~3.3 days
+//   level 3: 64 buckets x ~3.3days (2^48 ns)  → further out
+//
+// Each bucket is an intrusive circular doubly linked list, so schedule /
+// deschedule is O(1). advance(now) only visits buckets whose time slice has
+// passed: an entry there has either expired (removed) or is re-filed into a
+// finer level. Each entry moves at most once per level ⇒ amortized O(1).
+class ExpirationWheel {
+    private static final int SLOTS = 64;
+    private static final int[] SHIFTS = { 30, 36, 42, 48 };
+
+    static class Node {
+        long expiresAt; // relative nanos
+        Node prev, next; // bucket links (null ⇒ not scheduled)
+    }
+
+    private final Node[][] buckets = new Node[SHIFTS.length][SLOTS];
+    private long nanos; // time of the last advance
+
+    ExpirationWheel(long now) {
+        this.nanos = now;
+        for (Node[] level : buckets) {
+            for (int i = 0; i < SLOTS; i++) {
+                Node sentinel = new Node();
+                sentinel.prev = sentinel.next = sentinel;
+                level[i] = sentinel;
+            }
+        }
+    }
+
+    void schedule(Node node) {
+        Node sentinel = bucketFor(node.expiresAt);
+        node.prev = sentinel.prev;
+        node.next = sentinel;
+        sentinel.prev.next = node;
+        sentinel.prev = node;
+    }
+
+    void deschedule(Node node) {
+        if (node.next != null) {
+            node.prev.next = node.next;
+            node.next.prev = node.prev;
+            node.prev = node.next = null;
+        }
+    }
+
+    // Expires every node with expiresAt <= now; re-files the rest into finer levels
+    void advance(long now, Consumer<Node> onExpired) {
+        long previous = nanos;
+        nanos = now;
+        for (int level = 0; level < SHIFTS.length; level++) {
+            long previousTicks = previous >>> SHIFTS[level];
+            long currentTicks = now >>> SHIFTS[level];
+            if (currentTicks - previousTicks <= 0) {
+                break; // coarser levels can't have moved either
+            }
+            long steps = Math.min(SLOTS, currentTicks - previousTicks);
+            for (long tick = previousTicks; tick <= previousTicks + steps; tick++) {
+                Node sentinel = buckets[level][(int) (tick & (SLOTS - 1))];
+                Node node = sentinel.next;
+                sentinel.prev = sentinel.next = sentinel; // detach the whole bucket
+                while (node != sentinel) {
+                    Node next = node.next;
+                    node.prev = node.next = null;
+                    if (node.expiresAt - now <= 0) {
+                        onExpired.accept(node);
+                    } else {
+                        schedule(node);
+                    }
+                    node = next;
+                }
+            }
+        }
+    }
+
+    private Node bucketFor(long expiresAt) {
+        long delta = expiresAt - nanos;
+        for (int level = 0; level < SHIFTS.length - 1; level++) {
+            if (delta < (1L << SHIFTS[level + 1])) {
+                return buckets[level][(int) ((expiresAt >>> SHIFTS[level]) & (SLOTS - 1))];
+            }
+        }
+        int top = SHIFTS.length - 1;
+        return buckets[top][(int) ((expiresAt >>> SHIFTS[top]) & (SLOTS - 1))];
+    }
+}
+
+// LRU cache where every entry can have its own time-to-live.
+//
+// - Size bound: same as LRUCache (access-ordered LinkedHashMap, evict eldest).
+// - TTL: entries are filed in an ExpirationWheel; each get/put advances the
+//   wheel, removing expired entries in amortized O(1) — no background thread,
+//   no O(n) sweep.
+// - A get() of an expired entry that the wheel hasn't reached yet still misses
+//   (we check expiresAt on read).
+public class ExpiringLRUCache {
+
+    private static final long NEVER = Long.MAX_VALUE;
+
+    static final class Entry extends ExpirationWheel.Node {
+        final int key;
+        int value;
+
+        Entry(int key) {
+            this.key = key;
+        }
+    }
+
+    private final int capacity;
+    private final long origin = System.nanoTime(); // wheel time = nanoTime - origin (always >= 0)
+    private final LinkedHashMap<Integer, Entry> map;
+    private final ExpirationWheel wheel = new ExpirationWheel(0);
+    private final Consumer<ExpirationWheel.Node> expire = this::onExpired;
+
+    private long hits, misses, evictions, expirations;
+
+    public ExpiringLRUCache(int capacity) {
+        this.capacity = capacity;
+        this.map = new LinkedHashMap<>(capacity, 0.75f, true); // accessOrder = true
+    }
+
+    public int get(int key) {
+        long now = now();
+        wheel.advance(now, expire);
+        Entry entry = map.get(key);
+        if (entry == null) {
+            misses++;
+            return -1;
+        }
+        if (entry.expiresAt - now <= 0) { // expired, wheel hasn't reached its bucket yet
+            wheel.deschedule(entry);
+            expire.accept(entry);
+            misses++;
+            return -1;
+        }
+        hits++;
+        return entry.value;
+    }
+
+    // No TTL: lives until evicted by size
+    public void put(int key, int value) {
+        put(key, value, NEVER, TimeUnit.NANOSECONDS);
+    }
+
+    public void put(int key, int value, long ttl, TimeUnit unit) {
+        long now = now();
+        wheel.advance(now, expire);
+
+        Entry entry = map.get(key);
+        if (entry == null) {
+            entry = new Entry(key);
+            map.put(key, entry);
+        } else {
+            wheel.deschedule(entry);
+        }
+        entry.value = value;
+        if (ttl == NEVER) {
+            entry.expiresAt = NEVER;
+        } else {
+            entry.expiresAt = now + unit.toNanos(ttl);
+            wheel.schedule(entry);
+        }
+
+        if (map.size() > capacity) {
+            Entry eldest = map.values().iterator().next();
+            map.remove(eldest.key);
+            wheel.deschedule(eldest);
+            evictions++;
+        }
+    }
+
+    public int size() {
+        return map.size();
+    }
+
+    private void onExpired(ExpirationWheel.Node node) {
+        map.remove(((Entry) node).key);
+        expirations++;
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(hits, misses, evictions, expirations);
+    }
+
+    private long now() {
+        return System.nanoTime() - origin;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        ExpiringLRUCache cache = new ExpiringLRUCache(3);
+        cache.put(1, 100, 1, TimeUnit.SECONDS);
+        cache.put(2, 200, 3, TimeUnit.SECONDS);
+        cache.put(3, 300); // no TTL
+
+        System.out.println(cache.get(1)); // 100
+        Thread.sleep(1500);
+        System.out.println(cache.get(1)); // -1 (expired)
+        System.out.println(cache.get(2)); // 200
+        System.out.println(cache.get(3)); // 300
+
+        Thread.sleep(2000);
+        System.out.println(cache.get(2)); // -1 (expired)
+        System.out.println(cache.stats()); // hits=3 misses=2 ... expirations=2
+    }
+}
@@ -0,0 +1,204 @@
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+// LRU cache for int → int with NO per-entry objects.
+//
+// LRUCache (LinkedHashMap<Integer, Integer>) costs per mapping:
+//   Integer key + Integer value + LinkedHashMap.Entry (hash, key, value, next,
+//   before, after) + a table slot  ≈ 70-80 bytes.
+//
+// Here every entry is an INDEX into parallel int[] arrays:
+//
+//   keys[i], values[i]   the mapping
+//   prev[i], next[i]     the LRU doubly linked list, as indexes (-1 = none)
+//   table[]              open-addressing hash index: slot → entry index + 1 (0 = empty)
+//
+// ≈ 24 bytes per entry (4 arrays x 4 bytes + 2 table slots x 4 bytes), all
+// allocated once up front: no garbage, nothing for the GC to trace.
+
+public class IntLRUCache {
+
+    private static final int NONE = -1;
+    static final int MAX_CAPACITY = 1 << 29; // the hash table (2 x capacity, power of two) must fit an int[]
+
+    private final int capacity;
+    private final int[] keys;
+    private final int[] values;
+    private final int[] prev;
+    private final int[] next;
+    private final int[] table; // linear probing, load factor <= 0.5
+    private final int mask;
+    private int head = NONE; // least recently used
+    private int tail = NONE; // most recently used
+    private int size;
+
+    public IntLRUCache(int capacity) {
+        if (capacity <= 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("capacity must be in 1.." + MAX_CAPACITY + ": " + capacity);
+        }
+        this.capacity = capacity;
+        this.keys = new int[capacity];
+        this.values = new int[capacity];
+        this.prev = new int[capacity];
+        this.next = new int[capacity];
+        int tableSize = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1) << 1;
+        this.table = new int[tableSize];
+        this.mask = tableSize - 1;
+    }
+
+    public int get(int key) {
+        int entry = find(key);
+        if (entry == NONE) {
+            return -1;
+        }
+        moveToTail(entry);
+        return values[entry];
+    }
+
+    public void put(int key, int value) {
+        int entry = find(key);
+        if (entry != NONE) {
+            values[entry] = value;
+            moveToTail(entry);
+            return;
+        }
+        if (size < capacity) {
+            entry = size++;
+        } else {
+            entry = head; // evict the least recently used entry and reuse its slot
+            removeFromTable(keys[entry]);
+            unlink(entry);
+        }
+        keys[entry] = key;
+        values[entry] = value;
+        insertIntoTable(key, entry);
+        linkLast(entry);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    // ----- open-addressing index -----
+
+    private int find(int key) {
+        for (int slot = hash(key) & mask;; slot = (slot + 1) & mask) {
+            int entry = table[slot] - 1;
+            if (entry == NONE) {
+                return NONE;
+            }
+            if (keys[entry] == key) {
+                return entry;
+            }
+        }
+    }
+
+    private void insertIntoTable(int key, int entry) {
+        int slot = hash(key) & mask;
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = entry + 1;
+    }
+
+    // Backward-shift deletion: keeps probe chains intact without tombstones
+    private void removeFromTable(int key) {
+        int slot = hash(key) & mask;
+        while (keys[table[slot] - 1] != key) {
+            slot = (slot + 1) & mask;
+        }
+        int hole = slot;
+        for (int probe = (hole + 1) & mask; table[probe] != 0; probe = (probe + 1) & mask) {
+            int home = hash(keys[table[probe] - 1]) & mask;
+            // Move the entry back if its home slot is not in (hole, probe]
+            if (((probe - home) & mask) >= ((probe - hole) & mask)) {
+                table[hole] = table[probe];
+                hole = probe;
+            }
+        }
+        table[hole] = 0;
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    // ----- index-linked LRU list -----
+
+    private void moveToTail(int entry) {
+        if (entry != tail) {
+            unlink(entry);
+            linkLast(entry);
+        }
+    }
+
+    private void unlink(int entry) {
+        int p = prev[entry], n = next[entry];
+        if (p == NONE) head = n; else next[p] = n;
+        if (n == NONE) tail = p; else prev[n] = p;
+    }
+
+    private void linkLast(int entry) {
+        prev[entry] = tail;
+        next[entry] = NONE;
+        if (tail == NONE) head = entry; else next[tail] = entry;
+        tail = entry;
+    }
+
+    public void clear() {
+        Arrays.fill(table, 0);
+        head = tail = NONE;
+        size = 0;
+    }
+
+    // ----- bulk export / import (used by CacheSnapshot) -----
+
+    // Writes keys and values into two parallel buffers, eldest first
+    void exportTo(IntBuffer keysOut, IntBuffer valuesOut) {
+        for (int entry = head; entry != NONE; entry = next[entry]) {
+            keysOut.put(keys[entry]);
+            valuesOut.put(values[entry]);
+        }
+    }
+
+    // Replaces the contents with `count` entries given eldest first. Arrays are
+    // copied in bulk and the LRU list is simply 0 → 1 → ... → count-1: no put()
+    // calls, no eviction checks, one pass to rebuild the hash index.
+    void bulkLoad(IntBuffer keysIn, IntBuffer valuesIn, int count) {
+        if (count > capacity) {
+            throw new IllegalArgumentException("Snapshot has " + count + " entries, capacity is " + capacity);
+        }
+        clear();
+        keysIn.get(keys, 0, count);
+        valuesIn.get(values, 0, count);
+        for (int i = 0; i < count; i++) {
+            prev[i] = i - 1; // -1 == NONE for the first entry
+            next[i] = i + 1;
+            insertIntoTable(keys[i], i);
+        }
+        if (count > 0) {
+            next[count - 1] = NONE;
+            head = 0;
+            tail = count - 1;
+        }
+        size = count;
+    }
+
+    public static void main(String[] args) {
+        IntLRUCache cache = new IntLRUCache(2);
+        cache.put(1, 1);
+        cache.put(2, 2);
+        System.out.println(cache.get(1)); // 1
+        cache.put(3, 3);
+        System.out.println(cache.get(2)); // -1
+        cache.put(4, 4);
+        System.out.println(cache.get(1)); // -1
+        System.out.println(cache.get(3)); // 3
+        System.out.println(cache.get(4)); // 4
+    }
+}
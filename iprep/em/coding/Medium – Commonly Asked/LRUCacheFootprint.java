@@ -0,0 +1,78 @@
+import java.lang.ref.Reference;
+
+// Heap footprint: LRUCache (LinkedHashMap<Integer, Integer>) vs IntLRUCache (parallel int[]).
+//
+// Fills each cache with N distinct keys and measures retained heap after a GC.
+// 50M entries of LRUCache need a big heap, e.g.:
+//
+//   java -Xmx12g LRUCacheFootprint 1000000 10000000 50000000
+//
+// A size that doesn't fit is reported as OOM instead of crashing the run.
+
+public class LRUCacheFootprint {
+
+    public static void main(String[] args) {
+        long[] sizes = { 1_000_000, 10_000_000, 50_000_000 };
+        if (args.length > 0) {
+            sizes = new long[args.length];
+            for (int i = 0; i < args.length; i++) {
+                sizes[i] = Long.parseLong(args[i]);
+            }
+        }
+
+        System.out.printf("%-12s %18s %10s %18s %10s%n", "entries", "LRUCache", "B/entry", "IntLRUCache", "B/entry");
+        for (long n : sizes) {
+            int entries = (int) n;
+            long boxed = measure(() -> {
+                LRUCache cache = new LRUCache(entries);
+                for (int i = 0; i < entries; i++) {
+                    cache.put(i, i);
+                }
+                return cache;
+            });
+            long primitive = measure(() -> {
+                IntLRUCache cache = new IntLRUCache(entries);
+                for (int i = 0; i < entries; i++) {
+                    cache.put(i, i);
+                }
+                return cache;
+            });
+            System.out.printf("%-12d %18s %10s %18s %10s%n", n, mb(boxed), perEntry(boxed, n), mb(primitive),
+                    perEntry(primitive, n));
+        }
+    }
+
+    interface Builder {
+        Object build();
+    }
+
+    // Retained bytes of the built object, or -1 if it didn't fit in the heap
+    static long measure(Builder builder) {
+        long before = usedAfterGc();
+        Object keepAlive;
+        try {
+            keepAlive = builder.build();
+        } catch (OutOfMemoryError e) {
+            return -1;
+        }
+        long after = usedAfterGc();
+        Reference.reachabilityFence(keepAlive); // keep the cache reachable until measured
+        return after - before;
+    }
+
+    static long usedAfterGc() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    static String mb(long bytes) {
+        return bytes < 0 ? "OOM" : String.format("%,.1f MB", bytes / (1024.0 * 1024));
+    }
+
+    static String perEntry(long bytes, long n) {
+        return bytes < 0 ? "-" : String.format("%.1f", (double) bytes / n);
+    }
+}
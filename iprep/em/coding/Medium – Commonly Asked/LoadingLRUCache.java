@@ -0,0 +1,290 @@
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
+
+// Loading cache with single-flight misses ("request coalescing").
+//
+// Problem: a hot key expires or is evicted, 500 threads miss at once, and all
+// 500 call the backend for the same value (thundering herd / cache stampede).
+//
+// Fix: the first thread to miss registers a CompletableFuture in `inFlight`
+// and does the load; every other thread that misses the same key meanwhile
+// just waits on that future. One backend call per key, however many callers.
+//
+//   get(key, loader)            one key
+//   getAll(keys, bulkLoader)    misses this caller owns are fetched in ONE bulk call;
+//                               misses already in flight elsewhere are awaited
+//
+// Backed by ConcurrentLRUCache, so -1 still means "absent" (same convention as
+// LRUCache). Loader contract: return -1 (get) or a -1 value / no entry (getAll)
+// for "no such value". That result is returned to every waiter but NOT cached,
+// so the next call for that key loads again.
+
+public class LoadingLRUCache {
+
+    private final ConcurrentLRUCache cache;
+    private final ConcurrentHashMap<Integer, CompletableFuture<Integer>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loadSuccesses = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder totalLoadTime = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public LoadingLRUCache(int capacity) {
+        this.cache = new ConcurrentLRUCache(capacity);
+    }
+
+    public int get(int key, IntUnaryOperator loader) {
+        int value = cache.get(key);
+        if (value != -1) {
+            hits.increment();
+            return value;
+        }
+        misses.increment();
+
+        CompletableFuture<Integer> mine = new CompletableFuture<>();
+        CompletableFuture<Integer> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing); // someone else is already loading it
+        }
+        try {
+            value = cache.get(key); // a load may have finished between our miss and putIfAbsent
+            if (value == -1) {
+                long start = System.nanoTime();
+                try {
+                    value = loader.applyAsInt(key);
+                } catch (Throwable e) { // Errors too: waiters must never be left parked
+                    loadFailures.increment();
+                    totalLoadTime.add(System.nanoTime() - start);
+                    mine.completeExceptionally(e); // waiters see the same failure
+                    throw e;
+                }
+                totalLoadTime.add(System.nanoTime() - start);
+                loadSuccesses.increment();
+                if (value != -1) { // -1 = "no such value": never cached
+                    cache.put(key, value);
+                }
+            }
+            mine.complete(value);
+            return value;
+        } finally {
+            if (!mine.isDone()) { // e.g. cache.put itself failed
+                mine.completeExceptionally(new IllegalStateException("Load of key " + key + " did not complete"));
+            }
+            inFlight.remove(key, mine);
+        }
+    }
+
+    // Returns the values found/loaded, in `keys` order. Keys the bulk loader
+    // doesn't return are absent from the result (and not cached).
+    public Map<Integer, Integer> getAll(int[] keys, Function<Set<Integer>, Map<Integer, Integer>> bulkLoader) {
+        Map<Integer, Integer> found = new HashMap<>();
+        Map<Integer, CompletableFuture<Integer>> owned = new LinkedHashMap<>();
+        Map<Integer, CompletableFuture<Integer>> waiting = new HashMap<>();
+
+        for (int key : keys) {
+            if (found.containsKey(key) || owned.containsKey(key) || waiting.containsKey(key)) {
+                continue; // duplicate key in the request
+            }
+            int value = cache.get(key);
+            if (value != -1) {
+                hits.increment();
+                found.put(key, value);
+                continue;
+            }
+            misses.increment();
+            CompletableFuture<Integer> mine = new CompletableFuture<>();
+            CompletableFuture<Integer> existing = inFlight.putIfAbsent(key, mine);
+            if (existing != null) {
+                coalesced.increment();
+                waiting.put(key, existing);
+                continue;
+            }
+            value = cache.get(key); // a load may have finished between our miss and putIfAbsent
+            if (value != -1) {
+                found.put(key, value);
+                mine.complete(value);
+                inFlight.remove(key, mine);
+            } else {
+                owned.put(key, mine);
+            }
+        }
+
+        if (!owned.isEmpty()) {
+            long start = System.nanoTime();
+            try {
+                Map<Integer, Integer> loaded = bulkLoader.apply(Collections.unmodifiableSet(owned.keySet()));
+                totalLoadTime.add(System.nanoTime() - start);
+                loadSuccesses.increment();
+                for (Map.Entry<Integer, CompletableFuture<Integer>> e : owned.entrySet()) {
+                    Integer value = loaded.get(e.getKey());
+                    if (value != null && value == -1) {
+                        value = null; // "no such value", same as a missing entry
+                    }
+                    if (value != null) {
+                        cache.put(e.getKey(), value);
+                        found.put(e.getKey(), value);
+                    }
+                    e.getValue().complete(value); // null ⇒ absent for waiters too
+                }
+            } catch (Throwable ex) {
+                totalLoadTime.add(System.nanoTime() - start);
+                loadFailures.increment();
+                owned.values().forEach(f -> f.completeExceptionally(ex));
+                throw ex;
+            } finally {
+                for (Map.Entry<Integer, CompletableFuture<Integer>> e : owned.entrySet()) {
+                    if (!e.getValue().isDone()) {
+                        e.getValue().completeExceptionally(
+                                new IllegalStateException("Load of key " + e.getKey() + " did not complete"));
+                    }
+                    inFlight.remove(e.getKey(), e.getValue());
+                }
+            }
+        }
+
+        for (Map.Entry<Integer, CompletableFuture<Integer>> e : waiting.entrySet()) {
+            Integer value = awaitNullable(e.getValue());
+            if (value != null) {
+                found.put(e.getKey(), value);
+            }
+        }
+
+        Map<Integer, Integer> result = new LinkedHashMap<>();
+        for (int key : keys) {
+            Integer value = found.get(key);
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        return result;
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), 0, 0, 0, loadSuccesses.sum(), loadFailures.sum(),
+                totalLoadTime.sum(), coalesced.sum());
+    }
+
+    private static int await(CompletableFuture<Integer> future) {
+        Integer value = awaitNullable(future);
+        return value == null ? -1 : value;
+    }
+
+    // Rethrows the loader's own exception rather than a CompletionException wrapper
+    private static Integer awaitNullable(CompletableFuture<Integer> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        LoadingLRUCache cache = new LoadingLRUCache(1000);
+        AtomicInteger backendCalls = new AtomicInteger();
+        IntUnaryOperator slowBackend = key -> {
+            backendCalls.incrementAndGet();
+            try {
+                Thread.sleep(200); // pretend this is a slow DB query
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return key * 10;
+        };
+
+        // 100 threads miss the same hot key at the same time
+        int threads = 100;
+        CountDownLatch go = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            new Thread(() -> {
+                try {
+                    go.await();
+                    cache.get(42, slowBackend);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+        go.countDown();
+        done.await();
+        System.out.println("Backend calls for 100 concurrent misses: " + backendCalls.get()); // 1
+
+        // Batch: 1, 2, 3 are loaded in one bulk call; 42 is already cached
+        Map<Integer, Integer> values = cache.getAll(new int[] { 1, 2, 42, 3 }, missing -> {
+            System.out.println("Bulk load for " + missing);
+            Map<Integer, Integer> rows = new HashMap<>();
+            missing.forEach(k -> rows.put(k, k * 10));
+            return rows;
+        });
+        System.out.println(values); // {1=10, 2=20, 42=420, 3=30}
+        System.out.println(cache.stats());
+
+        // -1 from the loader means "no such value": returned, but not cached
+        AtomicInteger absentLoads = new AtomicInteger();
+        cache.get(99, key -> {
+            absentLoads.incrementAndGet();
+            return -1;
+        });
+        cache.get(99, key -> {
+            absentLoads.incrementAndGet();
+            return -1;
+        });
+        System.out.println("Loads for an absent key, called twice: " + absentLoads.get()); // 2
+
+        checkLoaderErrorReleasesWaiters();
+    }
+
+    // The loader throws an Error (not a RuntimeException) while a second thread
+    // is coalesced on the same key: the waiter must get that Error, not hang.
+    static void checkLoaderErrorReleasesWaiters() throws InterruptedException {
+        LoadingLRUCache cache = new LoadingLRUCache(10);
+        IntUnaryOperator failingBackend = key -> {
+            long deadline = System.nanoTime() + 5_000_000_000L;
+            while (cache.stats().coalescedLoadCount() == 0 && System.nanoTime() < deadline) {
+                Thread.yield(); // wait until the second caller is parked on our future
+            }
+            throw new AssertionError("backend crashed");
+        };
+        Throwable[] seen = new Throwable[2];
+        Thread[] callers = new Thread[2];
+        for (int i = 0; i < 2; i++) {
+            int caller = i;
+            callers[i] = new Thread(() -> {
+                try {
+                    cache.get(7, failingBackend);
+                } catch (Throwable t) {
+                    seen[caller] = t;
+                }
+            });
+            callers[i].start();
+        }
+        for (Thread t : callers) {
+            t.join(10_000);
+            if (t.isAlive()) {
+                throw new AssertionError("caller still blocked after the loader threw an Error");
+            }
+        }
+        if (!(seen[0] instanceof AssertionError) || !(seen[1] instanceof AssertionError)) {
+            throw new AssertionError("expected both callers to see the loader's Error: " + Arrays.toString(seen));
+        }
+        System.out.println("Loader Error reached both callers: " + seen[0].getMessage()); // backend crashed
+    }
+}
@@ -0,0 +1,197 @@
+import java.util.*;
+
+// Count-Min Sketch with 4-bit counters: "roughly how often did we see this key lately?"
+//
+// 16 counters are packed into each long. Each key maps to 4 counters (one per
+// hash function); its frequency is the MIN of them (collisions only ever
+// over-count). Counters saturate at 15, which is plenty to compare "hot" vs "cold".
+//
+// Aging: after `sampleSize` increments every counter is halved, so old
+// popularity fades and the sketch follows changes in the workload.
+class CountMinSketch {
+    private static final long[] SEEDS = { 0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L,
+            0xD6E8FEB86659FD93L };
+    private static final long RESET_MASK = 0x7777_7777_7777_7777L; // drops each counter's lowest bit after >>> 1
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int additions;
+
+    CountMinSketch(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1; // ~16 counters per cached entry
+        this.table = new long[size];
+        this.tableMask = size - 1;
+        this.sampleSize = 10 * Math.max(1, capacity);
+    }
+
+    void increment(int key) {
+        boolean added = false;
+        for (int i = 0; i < 4; i++) {
+            long h = hash(key, i);
+            int index = (int) (h >>> 32) & tableMask;
+            int shift = (int) (h & 15) << 2;
+            if (((table[index] >>> shift) & 15) < 15) {
+                table[index] += 1L << shift;
+                added = true;
+            }
+        }
+        if (added && ++additions == sampleSize) {
+            age();
+        }
+    }
+
+    int frequency(int key) {
+        int min = 15;
+        for (int i = 0; i < 4; i++) {
+            long h = hash(key, i);
+            int index = (int) (h >>> 32) & tableMask;
+            int shift = (int) (h & 15) << 2;
+            min = Math.min(min, (int) ((table[index] >>> shift) & 15));
+        }
+        return min;
+    }
+
+    private void age() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions /= 2;
+    }
+
+    private static long hash(int key, int i) {
+        long h = (key + SEEDS[i]) * SEEDS[(i + 1) & 3];
+        return h ^ (h >>> 29);
+    }
+}
+
+// W-TinyLFU cache: LRU that doesn't let a scan flush the hot set.
+//
+//   new key ──► [ window LRU 1% ] ──candidate──► admission: freq(candidate) > freq(victim)?
+//                                                    │yes                       │no
+//                                                    ▼                          ▼
+//                           [ probation 20% ] ◄─demote─ [ protected 80% ]    dropped
+//                                 │ hit ──────promote─────►
+//
+// - The small window absorbs bursts of brand-new keys (pure recency).
+// - The main region is segmented LRU: a second hit promotes to "protected".
+// - A key leaving the window only gets into the main region if the sketch says
+//   it is used more often than the key it would evict. One-hit wonders of a
+//   scan never beat a hot key, so the hot set survives.
+// - Frequency is counted by get() only. put() is a write, not an access: in
+//   cache-aside (get miss, load, put) the get already counted it, so the pair
+//   counts once. A key that is only ever put() starts at frequency 0.
+public class WTinyLfuCache {
+
+    private final int windowCapacity;
+    private final int protectedCapacity;
+    private final int mainCapacity;
+    private final LinkedHashMap<Integer, Integer> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<Integer, Integer> probation = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<Integer, Integer> protectedRegion = new LinkedHashMap<>(16, 0.75f, true);
+    private final CountMinSketch sketch;
+
+    public WTinyLfuCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.windowCapacity = Math.max(1, capacity / 100);
+        this.mainCapacity = capacity - windowCapacity; // 0 for capacity 1: window only
+        this.protectedCapacity = (int) (mainCapacity * 0.8);
+        this.sketch = new CountMinSketch(capacity);
+    }
+
+    public int get(int key) {
+        sketch.increment(key);
+        Integer value = window.get(key);
+        if (value != null) {
+            return value;
+        }
+        value = probation.remove(key);
+        if (value != null) {
+            promote(key, value); // second hit in main region
+            return value;
+        }
+        value = protectedRegion.get(key);
+        return value == null ? -1 : value;
+    }
+
+    public void put(int key, int value) {
+        if (window.containsKey(key)) {
+            window.put(key, value);
+        } else if (probation.containsKey(key)) {
+            probation.remove(key);
+            promote(key, value);
+        } else if (protectedRegion.containsKey(key)) {
+            protectedRegion.put(key, value);
+        } else {
+            window.put(key, value);
+            if (window.size() > windowCapacity) {
+                Map.Entry<Integer, Integer> candidate = eldest(window);
+                window.remove(candidate.getKey());
+                admit(candidate.getKey(), candidate.getValue());
+            }
+        }
+    }
+
+    public int size() {
+        return window.size() + probation.size() + protectedRegion.size();
+    }
+
+    // A key leaving the window competes with the main region's LRU victim
+    private void admit(int key, int value) {
+        if (mainCapacity == 0) {
+            return; // no main region: the window is the whole cache
+        }
+        if (probation.size() + protectedRegion.size() < mainCapacity) {
+            probation.put(key, value);
+            return;
+        }
+        LinkedHashMap<Integer, Integer> victimRegion = probation.isEmpty() ? protectedRegion : probation;
+        int victim = eldest(victimRegion).getKey();
+        if (sketch.frequency(key) > sketch.frequency(victim)) {
+            victimRegion.remove(victim);
+            probation.put(key, value);
+        }
+        // else: candidate is colder than the victim ⇒ reject it, keep the hot set
+    }
+
+    private void promote(int key, int value) {
+        protectedRegion.put(key, value);
+        if (protectedRegion.size() > protectedCapacity) {
+            Map.Entry<Integer, Integer> demoted = eldest(protectedRegion);
+            protectedRegion.remove(demoted.getKey());
+            probation.put(demoted.getKey(), demoted.getValue()); // back to probation, not evicted
+        }
+    }
+
+    private static Map.Entry<Integer, Integer> eldest(LinkedHashMap<Integer, Integer> region) {
+        return region.entrySet().iterator().next();
+    }
+
+    public static void main(String[] args) {
+        WTinyLfuCache cache = new WTinyLfuCache(100);
+
+        // Hot keys 0..49 are read many times
+        for (int round = 0; round < 10; round++) {
+            for (int k = 0; k < 50; k++) {
+                if (cache.get(k) == -1) cache.put(k, k);
+            }
+        }
+        // A one-time scan of 10,000 cold keys
+        for (int k = 1000; k < 11_000; k++) {
+            if (cache.get(k) == -1) cache.put(k, k);
+        }
+
+        int survivors = 0;
+        for (int k = 0; k < 50; k++) {
+            if (cache.get(k) != -1) survivors++;
+        }
+        System.out.println("Hot keys surviving the scan: " + survivors + "/50"); // LRUCache would keep 0
+
+        WTinyLfuCache tiny = new WTinyLfuCache(1);
+        tiny.put(1, 1);
+        tiny.put(2, 2);
+        System.out.println("Capacity 1 holds " + tiny.size() + " entry"); // 1
+    }
+}
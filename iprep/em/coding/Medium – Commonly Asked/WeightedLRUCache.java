@@ -0,0 +1,173 @@
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+// LRU cache bounded by total WEIGHT (e.g. bytes) instead of entry count.
+//
+// LRUCache evicts when size() > capacity. With values from 40 bytes to 4 MB a
+// count limit is meaningless: 1000 small entries waste the budget, 1000 big
+// ones blow the heap. Here each entry is weighed once on insert and the cache
+// evicts least-recently-used entries until totalWeight <= maxWeight.
+//
+//   new WeightedLRUCache<String, byte[]>(64 << 20, (k, v) -> v.length)  // 64 MB
+//
+// Stats counters are LongAdders and the current weight is volatile, so a
+// monitoring thread can call stats() / weightedSize() without taking the
+// cache lock.
+
+public class WeightedLRUCache<K, V> {
+
+    public interface Weigher<K, V> {
+        int weigh(K key, V value); // must be >= 0
+    }
+
+    private static final class Weighted<V> {
+        final V value;
+        final int weight;
+
+        Weighted(V value, int weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    private final long maxWeight;
+    private final Weigher<K, V> weigher;
+    private final LinkedHashMap<K, Weighted<V>> map = new LinkedHashMap<>(16, 0.75f, true); // accessOrder
+    private volatile long totalWeight; // written under the lock
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder evictedWeight = new LongAdder();
+    private final LongAdder loadSuccesses = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder totalLoadTime = new LongAdder();
+
+    public WeightedLRUCache(long maxWeight, Weigher<K, V> weigher) {
+        if (maxWeight <= 0) {
+            throw new IllegalArgumentException("maxWeight must be positive");
+        }
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    // Returns null on a miss
+    public synchronized V get(K key) {
+        Weighted<V> entry = map.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value;
+    }
+
+    // Cache-aside in one call. The loader runs OUTSIDE the lock so a slow load
+    // never blocks other keys (use LoadingLRUCache to also coalesce misses).
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V value = get(key);
+        if (value != null) {
+            return value;
+        }
+        long start = System.nanoTime();
+        try {
+            value = loader.apply(key);
+        } catch (RuntimeException e) {
+            loadFailures.increment();
+            totalLoadTime.add(System.nanoTime() - start);
+            throw e;
+        }
+        totalLoadTime.add(System.nanoTime() - start);
+        loadSuccesses.increment();
+        if (value != null) {
+            put(key, value);
+        }
+        return value;
+    }
+
+    public synchronized void put(K key, V value) {
+        int weight = weigher.weigh(key, value);
+        if (weight < 0) {
+            throw new IllegalArgumentException("negative weight for key " + key);
+        }
+        Weighted<V> old = map.remove(key);
+        if (old != null) {
+            totalWeight -= old.weight;
+        }
+        if (weight > maxWeight) {
+            // Bigger than the whole budget: caching it would evict everything else,
+            // so it is rejected straight away (counted as an eviction)
+            evictions.increment();
+            evictedWeight.add(weight);
+            return;
+        }
+        map.put(key, new Weighted<>(value, weight));
+        totalWeight += weight;
+        evictUntilUnderBudget();
+    }
+
+    public synchronized V remove(K key) {
+        Weighted<V> old = map.remove(key);
+        if (old == null) {
+            return null;
+        }
+        totalWeight -= old.weight;
+        return old.value;
+    }
+
+    // Lock held. Eldest (least recently used) entries go first.
+    private void evictUntilUnderBudget() {
+        Iterator<Weighted<V>> eldestFirst = map.values().iterator();
+        while (totalWeight > maxWeight) {
+            Weighted<V> eldest = eldestFirst.next();
+            eldestFirst.remove();
+            totalWeight -= eldest.weight;
+            evictions.increment();
+            evictedWeight.add(eldest.weight);
+        }
+    }
+
+    public synchronized int size() {
+        return map.size();
+    }
+
+    // Current total weight, readable without the lock
+    public long weightedSize() {
+        return totalWeight;
+    }
+
+    public long maxWeight() {
+        return maxWeight;
+    }
+
+    // Lock-free snapshot for monitoring threads
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), evictedWeight.sum(), 0,
+                loadSuccesses.sum(), loadFailures.sum(), totalLoadTime.sum(), 0);
+    }
+
+    public static void main(String[] args) {
+        // 10 KB budget, weight = value size in bytes
+        WeightedLRUCache<String, byte[]> cache = new WeightedLRUCache<>(10 * 1024, (k, v) -> v.length);
+
+        cache.put("small-1", new byte[40]);
+        cache.put("small-2", new byte[40]);
+        cache.put("big", new byte[8 * 1024]);
+        System.out.println(cache.size() + " entries, " + cache.weightedSize() + " bytes"); // 3 entries, 8272 bytes
+
+        cache.get("small-1"); // small-1 is now most recently used
+        cache.put("big-2", new byte[4 * 1024]); // over budget: evicts small-2, then big
+        System.out.println(cache.get("small-2")); // null
+        System.out.println(cache.get("big")); // null
+        System.out.println(cache.get("small-1") != null); // true
+        System.out.println(cache.size() + " entries, " + cache.weightedSize() + " bytes"); // 2 entries, 4136 bytes
+
+        cache.put("huge", new byte[1 << 20]); // larger than the whole budget: not cached
+        System.out.println(cache.get("huge")); // null
+
+        byte[] loaded = cache.get("page:7", key -> new byte[512]); // miss → load → put
+        System.out.println(loaded.length + " bytes loaded"); // 512 bytes loaded
+        System.out.println(cache.stats());
+    }
+}
@@ -0,0 +1,96 @@
+import java.lang.management.ManagementFactory;
+import java.util.*;
+
+// Many queries against one big dictionary:
+//   WordBreakDP.wordBreak(s, list)          HashSet rebuilt per call (few queries only)
+//   WordBreakDP.wordBreak(s, set, filter)   reused set + Bloom filter
+//   WordBreakEngine.canBreak(s)             compiled trie, forward walk
+//
+// Queries are 2-8 dictionary words glued together; half get one char changed.
+// Reports time and bytes allocated per query.
+//
+//   java -Xmx4g WordBreakBenchmark 1000000 200000    # dictionary words, queries
+
+public class WordBreakBenchmark {
+
+    public static void main(String[] args) {
+        int words = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int queries = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+        Random random = new Random(42);
+
+        Set<String> dictionary = new HashSet<>();
+        while (dictionary.size() < words) {
+            dictionary.add(randomWord(random));
+        }
+        List<String> list = new ArrayList<>(dictionary);
+        String[] inputs = new String[queries];
+        for (int i = 0; i < queries; i++) {
+            StringBuilder sb = new StringBuilder();
+            for (int w = 2 + random.nextInt(7); w > 0; w--) {
+                sb.append(list.get(random.nextInt(list.size())));
+            }
+            if (random.nextBoolean()) {
+                sb.setCharAt(random.nextInt(sb.length()), (char) ('a' + random.nextInt(26)));
+            }
+            inputs[i] = sb.toString();
+        }
+
+        long start = System.nanoTime();
+        WordBreakEngine engine = new WordBreakEngine(list);
+        System.out.printf("%,d words compiled into %,d trie nodes in %d ms%n", words, engine.nodeCount(),
+                (System.nanoTime() - start) / 1_000_000);
+        BlockedBloomFilter filter = WordBreakDP.buildFilter(dictionary, 0.01);
+
+        int perCall = 5; // each call copies the whole dictionary into a new HashSet
+        start = System.nanoTime();
+        long allocated = allocatedBytes();
+        for (int i = 0; i < perCall; i++) {
+            WordBreakDP.wordBreak(inputs[i], list);
+        }
+        report("wordBreak(s, list)", perCall, System.nanoTime() - start, allocatedBytes() - allocated);
+
+        for (int round = 0; round < 3; round++) { // first rounds are JIT warm-up
+            int found = 0;
+            start = System.nanoTime();
+            allocated = allocatedBytes();
+            for (String s : inputs) {
+                if (WordBreakDP.wordBreak(s, dictionary, filter)) {
+                    found++;
+                }
+            }
+            report("wordBreak(s, set, bloom)", queries, System.nanoTime() - start, allocatedBytes() - allocated);
+
+            int engineFound = 0;
+            start = System.nanoTime();
+            allocated = allocatedBytes();
+            for (String s : inputs) {
+                if (engine.canBreak(s)) {
+                    engineFound++;
+                }
+            }
+            report("engine.canBreak(s)", queries, System.nanoTime() - start, allocatedBytes() - allocated);
+            if (found != engineFound) {
+                throw new AssertionError("results differ: " + found + " vs " + engineFound);
+            }
+        }
+    }
+
+    static String randomWord(Random random) {
+        char[] chars = new char[3 + random.nextInt(10)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(chars);
+    }
+
+    static void report(String name, int queries, long nanos, long bytes) {
+        System.out.printf("  %-26s %,12.1f µs/query %,12d bytes/query%n", name, nanos / 1e3 / queries,
+                bytes / queries);
+    }
+
+    // Bytes allocated by this thread so far (HotSpot)
+    static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
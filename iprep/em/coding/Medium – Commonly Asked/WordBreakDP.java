@@ -1,3 +1,4 @@
+import java.io.*;
 import java.util.*;
 
 public class WordBreakDP {
@@ -21,9 +22,48 @@ public class WordBreakDP {
         return dp[s.length()];
     }
 
-    public static void main(String[] args) {
+    // Same DP for a dictionary built once and reused across calls. Most s[j..i)
+    // candidates are not words: the Bloom filter hashes them straight from `s`
+    // and rejects them without allocating a substring or probing the set.
+    public static boolean wordBreak(String s, Set<String> wordSet, BlockedBloomFilter filter) {
+        boolean[] dp = new boolean[s.length() + 1];
+        dp[0] = true;
+
+        for (int i = 1; i <= s.length(); i++) {
+            for (int j = 0; j < i; j++) {
+                if (dp[j] && filter.mightContain(s, j, i) && wordSet.contains(s.substring(j, i))) {
+                    dp[i] = true;
+                    break;
+                }
+            }
+        }
+
+        return dp[s.length()];
+    }
+
+    // Filter for wordBreak(s, wordSet, filter); keep it (and serialize it) with the dictionary
+    public static BlockedBloomFilter buildFilter(Collection<String> words, double falsePositiveRate) {
+        BlockedBloomFilter filter = new BlockedBloomFilter(Math.max(1, words.size()), falsePositiveRate);
+        for (String word : words) {
+            filter.put(word);
+        }
+        return filter;
+    }
+
+    public static void main(String[] args) throws IOException {
         String s = "leetcode";
         List<String> wordDict = Arrays.asList("leet", "code");
         System.out.println(wordBreak(s, wordDict)); // true
+
+        Set<String> wordSet = new HashSet<>(Arrays.asList("apple", "pen", "applepen", "pine", "pineapple"));
+        BlockedBloomFilter filter = buildFilter(wordSet, 0.01);
+        System.out.println(wordBreak("pineapplepenapple", wordSet, filter)); // true
+        System.out.println(wordBreak("catsandog", wordSet, filter)); // false
+
+        // Saved next to the dictionary, loaded back at startup
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        filter.writeTo(new DataOutputStream(bytes));
+        BlockedBloomFilter loaded = BlockedBloomFilter.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        System.out.println(wordBreak("applepenapple", wordSet, loaded)); // true
     }
 }
@@ -0,0 +1,338 @@
+import java.util.*;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Reusable word-break engine: compile the dictionary ONCE, answer millions of queries.
+//
+// WordBreakDP.wordBreak rebuilds a HashSet from the list on every call, then
+// tries every j < i with s.substring(j, i): O(n²) substrings of garbage per
+// query. Here:
+//
+// - The dictionary is compiled once into a trie stored in arrays (children of
+//   node n are ids childStart[n] .. childStart[n+1]-1, sorted by edge char).
+// - From each reachable position we WALK FORWARD in the trie: every word end
+//   on the way is a candidate, and the walk stops as soon as the trie has no
+//   child, at most maxWordLength chars. No substrings, no hashing.
+// - Scratch arrays are per thread and reused, so canBreak() allocates nothing;
+//   the engine itself is immutable and shared by all threads.
+//
+//   canBreak(s)            is there any segmentation?
+//   segmentations(s)       every segmentation, generated lazily (Stream)
+//   bestSegmentation(s)    cheapest segmentation under a per-word cost model
+
+public class WordBreakEngine {
+
+    private final int[] childStart; // node → first child id (length nodes + 1)
+    private final char[] edge; // node → char on the edge into it
+    private final long[] terminal; // bit n set ⇔ a word ends at node n
+    private final float[] cost; // word cost at terminal nodes
+    private final int maxWordLength;
+
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    private static final class BuildNode {
+        final Map<Character, BuildNode> children = new HashMap<>();
+        String word;
+    }
+
+    private static final class Scratch {
+        boolean[] reachable = new boolean[64];
+        double[] best = new double[64];
+        int[] back = new int[64];
+
+        void ensure(int length) {
+            if (reachable.length < length) {
+                int size = Math.max(length, reachable.length * 2);
+                reachable = new boolean[size];
+                best = new double[size];
+                back = new int[size];
+            }
+        }
+    }
+
+    // Every word costs 1: bestSegmentation() = fewest words
+    public WordBreakEngine(Collection<String> words) {
+        this(words, w -> 1);
+    }
+
+    // E.g. cost = -log(frequency): bestSegmentation() = most likely sentence
+    public WordBreakEngine(Collection<String> words, ToDoubleFunction<String> wordCost) {
+        // Build a temporary pointer trie, then number it breadth-first into arrays
+        BuildNode root = new BuildNode();
+        int longest = 0;
+        for (String word : words) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            BuildNode node = root;
+            for (int i = 0; i < word.length(); i++) {
+                node = node.children.computeIfAbsent(word.charAt(i), c -> new BuildNode());
+            }
+            node.word = word;
+            longest = Math.max(longest, word.length());
+        }
+        this.maxWordLength = longest;
+
+        List<BuildNode> order = new ArrayList<>();
+        List<Character> edges = new ArrayList<>();
+        order.add(root);
+        edges.add('\0');
+        int[] starts = new int[16];
+        for (int id = 0; id < order.size(); id++) {
+            if (starts.length < id + 2) {
+                starts = Arrays.copyOf(starts, starts.length * 2);
+            }
+            starts[id] = order.size();
+            BuildNode node = order.get(id);
+            List<Character> keys = new ArrayList<>(node.children.keySet());
+            Collections.sort(keys); // sorted children ⇒ binary search
+            for (char c : keys) {
+                order.add(node.children.get(c));
+                edges.add(c);
+            }
+        }
+        int nodes = order.size();
+        starts[nodes] = nodes;
+        this.childStart = Arrays.copyOf(starts, nodes + 1);
+        this.edge = new char[nodes];
+        this.terminal = new long[(nodes + 63) >>> 6];
+        this.cost = new float[nodes];
+        for (int id = 0; id < nodes; id++) {
+            edge[id] = edges.get(id);
+            String word = order.get(id).word;
+            if (word != null) {
+                terminal[id >>> 6] |= 1L << id;
+                cost[id] = (float) wordCost.applyAsDouble(word);
+            }
+        }
+    }
+
+    public boolean canBreak(CharSequence s) {
+        int n = s.length();
+        Scratch sc = scratch.get();
+        sc.ensure(n + 1);
+        boolean[] reachable = sc.reachable;
+        Arrays.fill(reachable, 0, n + 1, false);
+        reachable[0] = true;
+
+        for (int start = 0; start < n; start++) {
+            if (!reachable[start]) {
+                continue;
+            }
+            int node = 0;
+            for (int end = start; end < n && end - start < maxWordLength; end++) {
+                node = child(node, s.charAt(end));
+                if (node < 0) {
+                    break; // no dictionary word continues this way
+                }
+                if (isTerminal(node)) {
+                    if (end + 1 == n) {
+                        return true;
+                    }
+                    reachable[end + 1] = true;
+                }
+            }
+        }
+        return n == 0;
+    }
+
+    // Cheapest segmentation (sum of word costs), or null if there is none
+    public List<String> bestSegmentation(String s) {
+        int n = s.length();
+        Scratch sc = scratch.get();
+        sc.ensure(n + 1);
+        double[] best = sc.best;
+        int[] back = sc.back;
+        Arrays.fill(best, 0, n + 1, Double.POSITIVE_INFINITY);
+        best[0] = 0;
+
+        for (int start = 0; start < n; start++) {
+            if (best[start] == Double.POSITIVE_INFINITY) {
+                continue;
+            }
+            int node = 0;
+            for (int end = start; end < n && end - start < maxWordLength; end++) {
+                node = child(node, s.charAt(end));
+                if (node < 0) {
+                    break;
+                }
+                if (isTerminal(node) && best[start] + cost[node] < best[end + 1]) {
+                    best[end + 1] = best[start] + cost[node];
+                    back[end + 1] = start;
+                }
+            }
+        }
+        if (best[n] == Double.POSITIVE_INFINITY) {
+            return null;
+        }
+        LinkedList<String> words = new LinkedList<>();
+        for (int end = n; end > 0; end = back[end]) {
+            words.addFirst(s.substring(back[end], end));
+        }
+        return words;
+    }
+
+    // All segmentations, produced one at a time as the stream is consumed.
+    // A backward pass first marks which suffixes can be segmented at all, so
+    // the depth-first generator never enters a dead end: each next() costs
+    // O(n × maxWordLength) at most, however many segmentations exist.
+    public Stream<List<String>> segmentations(String s) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(new Segmentations(s),
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    private final class Segmentations implements Iterator<List<String>> {
+        private final String s;
+        private final boolean[] canFinish; // s[i..] can be segmented
+        // Explicit DFS stack: frame k is a word s[start[k] .. end[k]) reached at trie node node[k]
+        private final int[] start;
+        private final int[] end;
+        private final int[] node;
+        private int depth = -1;
+        private List<String> next;
+
+        Segmentations(String s) {
+            this.s = s;
+            int n = s.length();
+            this.canFinish = new boolean[n + 1];
+            canFinish[n] = true;
+            for (int from = n - 1; from >= 0; from--) {
+                int nd = 0;
+                for (int to = from; to < n && to - from < maxWordLength && !canFinish[from]; to++) {
+                    nd = child(nd, s.charAt(to));
+                    if (nd < 0) {
+                        break;
+                    }
+                    canFinish[from] = isTerminal(nd) && canFinish[to + 1];
+                }
+            }
+            this.start = new int[n];
+            this.end = new int[n];
+            this.node = new int[n];
+            if (n == 0) {
+                next = new ArrayList<>(); // the empty string has one (empty) segmentation
+            } else if (canFinish[0]) {
+                push(0);
+                advance();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public List<String> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            List<String> result = next;
+            next = null;
+            if (depth >= 0) {
+                advance();
+            }
+            return result;
+        }
+
+        private void push(int from) {
+            depth++;
+            start[depth] = from;
+            end[depth] = from;
+            node[depth] = 0;
+        }
+
+        // Moves the top frame to its next usable word end, descending and
+        // backtracking until a full segmentation is on the stack (or none is left)
+        private void advance() {
+            while (depth >= 0) {
+                if (extendTop()) {
+                    if (end[depth] == s.length()) {
+                        next = snapshot();
+                        return;
+                    }
+                    push(end[depth]);
+                } else {
+                    depth--; // no more words from this position: backtrack
+                }
+            }
+        }
+
+        // Continues the top frame's trie walk to the next word end whose suffix can finish
+        private boolean extendTop() {
+            int k = depth;
+            while (end[k] < s.length() && end[k] - start[k] < maxWordLength) {
+                node[k] = child(node[k], s.charAt(end[k]));
+                if (node[k] < 0) {
+                    return false;
+                }
+                end[k]++;
+                if (isTerminal(node[k]) && canFinish[end[k]]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private List<String> snapshot() {
+            List<String> words = new ArrayList<>(depth + 1);
+            for (int k = 0; k <= depth; k++) {
+                words.add(s.substring(start[k], end[k]));
+            }
+            return words;
+        }
+    }
+
+    public int maxWordLength() {
+        return maxWordLength;
+    }
+
+    public int nodeCount() {
+        return edge.length;
+    }
+
+    // Children of `parent` are sorted by edge char: binary search
+    private int child(int parent, char ch) {
+        int lo = childStart[parent];
+        int hi = childStart[parent + 1] - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (edge[mid] < ch) {
+                lo = mid + 1;
+            } else if (edge[mid] > ch) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private boolean isTerminal(int node) {
+        return (terminal[node >>> 6] & (1L << node)) != 0;
+    }
+
+    public static void main(String[] args) {
+        List<String> dictionary = Arrays.asList("cat", "cats", "and", "sand", "dog", "pine", "apple", "pen",
+                "applepen", "pineapple");
+        WordBreakEngine engine = new WordBreakEngine(dictionary); // compile once
+
+        System.out.println(engine.canBreak("catsanddog")); // true
+        System.out.println(engine.canBreak("catsandog")); // false
+
+        engine.segmentations("pineapplepenapple").forEach(System.out::println);
+        // [pine, apple, pen, apple]
+        // [pine, applepen, apple]
+        // [pineapple, pen, apple]
+
+        System.out.println(engine.bestSegmentation("pineapplepenapple")); // [pine, applepen, apple] (fewest words)
+
+        // Cost model: -log(frequency), so common words are cheap
+        Map<String, Double> frequency = new HashMap<>();
+        dictionary.forEach(w -> frequency.put(w, 1e-6));
+        frequency.put("pineapple", 1e-3);
+        WordBreakEngine likely = new WordBreakEngine(dictionary, w -> -Math.log(frequency.get(w)));
+        System.out.println(likely.bestSegmentation("pineapplepenapple")); // [pineapple, pen, apple]
+    }
+}
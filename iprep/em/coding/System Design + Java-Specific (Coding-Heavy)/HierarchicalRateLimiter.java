@@ -0,0 +1,134 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Two-level rate limiter: one host-wide budget, many process-local buckets.
+//
+//   JVM 1: local tokens ─┐
+//   JVM 2: local tokens ─┼── lease in batches ──► SharedTokenBudget (mmap file)
+//   JVM 3: local tokens ─┘
+//
+// Almost every allowRequest() is a CAS on a process-local AtomicLong. Only when
+// the local tokens run out do we touch shared memory, leasing a whole batch.
+//
+// Batch size adapts to demand:
+//   - leasing again very soon ⇒ we are busy ⇒ double the batch (fewer shared CASes)
+//   - leasing rarely          ⇒ we are quiet ⇒ halve the batch (don't hoard tokens
+//                                               other processes could use)
+
+public class HierarchicalRateLimiter implements RateLimiter, Closeable {
+
+    private static final long TARGET_LEASE_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final SharedTokenBudget budget;
+    private final int maxBatch;
+    private final AtomicLong localTokens = new AtomicLong();
+    private final Object leaseLock = new Object();
+
+    private int batchSize = 1; // guarded by leaseLock
+    private long lastLease = System.nanoTime(); // guarded by leaseLock
+    private volatile long retryLeaseAt; // global budget was empty: don't touch it before this
+    private volatile long leases; // how many times we went to shared memory
+
+    public HierarchicalRateLimiter(SharedTokenBudget budget) {
+        // Hoard at most 1/8 of the host budget per process
+        this(budget, (int) Math.max(1, budget.getCapacity() / 8));
+    }
+
+    public HierarchicalRateLimiter(SharedTokenBudget budget, int maxBatch) {
+        this.budget = budget;
+        this.maxBatch = maxBatch;
+        this.retryLeaseAt = lastLease;
+    }
+
+    public boolean allowRequest() {
+        while (true) {
+            long tokens = localTokens.get();
+            if (tokens <= 0) {
+                return leaseAndTake();
+            }
+            if (localTokens.compareAndSet(tokens, tokens - 1)) {
+                return true; // fast path: process-local only
+            }
+        }
+    }
+
+    // Slow path, roughly once per batch
+    private boolean leaseAndTake() {
+        long now = System.nanoTime();
+        if (now - retryLeaseAt < 0) {
+            return false; // budget known to be empty: don't hammer shared memory
+        }
+        synchronized (leaseLock) {
+            // Another thread may have leased while we waited for the lock
+            long tokens = localTokens.get();
+            while (tokens > 0) {
+                if (localTokens.compareAndSet(tokens, tokens - 1)) {
+                    return true;
+                }
+                tokens = localTokens.get();
+            }
+
+            adaptBatchSize(now);
+            long granted = budget.lease(batchSize);
+            leases++;
+            if (granted == 0) {
+                retryLeaseAt = now + budget.nanosUntilNextToken();
+                return false;
+            }
+            localTokens.addAndGet(granted - 1); // keep one for this request
+            return true;
+        }
+    }
+
+    private void adaptBatchSize(long now) {
+        long sinceLastLease = now - lastLease;
+        lastLease = now;
+        if (sinceLastLease < TARGET_LEASE_INTERVAL_NANOS) {
+            batchSize = Math.min(maxBatch, batchSize * 2);
+        } else if (sinceLastLease > 4 * TARGET_LEASE_INTERVAL_NANOS) {
+            batchSize = Math.max(1, batchSize / 2);
+        }
+    }
+
+    public int currentBatchSize() {
+        synchronized (leaseLock) {
+            return batchSize;
+        }
+    }
+
+    public long leaseCount() {
+        return leases;
+    }
+
+    // Return unused local tokens to the host so other processes can use them
+    @Override
+    public void close() {
+        budget.giveBack(localTokens.getAndSet(0));
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path file = Files.createTempFile("host-rate-limit", ".budget");
+
+        // Two "JVMs" sharing 1000 tokens, 100 tokens/sec host-wide
+        try (SharedTokenBudget budget1 = new SharedTokenBudget(file, 1000, 100);
+                SharedTokenBudget budget2 = new SharedTokenBudget(file, 1000, 100);
+                HierarchicalRateLimiter jvm1 = new HierarchicalRateLimiter(budget1);
+                HierarchicalRateLimiter jvm2 = new HierarchicalRateLimiter(budget2)) {
+
+            int allowed1 = 0, allowed2 = 0;
+            for (int i = 0; i < 2000; i++) {
+                if (jvm1.allowRequest()) allowed1++;
+                if (jvm2.allowRequest()) allowed2++;
+            }
+            System.out.println("JVM 1 allowed: " + allowed1 + " (shared-memory leases: " + jvm1.leaseCount() + ")");
+            System.out.println("JVM 2 allowed: " + allowed2 + " (shared-memory leases: " + jvm2.leaseCount() + ")");
+            System.out.println("Host total: " + (allowed1 + allowed2) + " (budget 1000)");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Hierarchical timer wheel: schedules tens of thousands of delayed tasks with
+// ONE thread and O(1) work per task (like a clock with hour/minute/second hands).
+//
+//   level 0: 64 slots x 1 tick          (next 64 ticks)
+//   level 1: 64 slots x 64 ticks        (next 4096 ticks)
+//   level 2: 64 slots x 4096 ticks      ...
+//   level 3: 64 slots x 262144 ticks
+//
+// A task goes into the coarsest level it fits. When a finer wheel completes a
+// turn, the next slot of the coarser wheel is "cascaded" down into it, so a
+// task is moved at most once per level. Delays beyond the top level wait in an
+// overflow list that is re-checked each time the top wheel advances.
+//
+// Tasks run on the wheel thread: keep them tiny (e.g. complete a future). A
+// task that throws is reported to the wheel thread's UncaughtExceptionHandler
+// (the JVM default one unless another is given) and the wheel keeps going.
+//
+// The thread doesn't wake every tick: it parks until the next tick that has
+// work (a due slot, a non-empty slot to cascade, or the overflow re-check),
+// and forever while the wheel is empty. schedule() unparks it only when the
+// new deadline is earlier than the tick it is parked for.
+
+public class HierarchicalTimerWheel {
+
+    private static final int BITS_PER_LEVEL = 6;
+    private static final int SLOTS = 1 << BITS_PER_LEVEL; // 64
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    private static final class Timeout {
+        final long deadlineTick;
+        final Runnable task;
+
+        Timeout(long deadlineTick, Runnable task) {
+            this.deadlineTick = deadlineTick;
+            this.task = task;
+        }
+    }
+
+    private final long tickNanos;
+    private final long startNanos;
+    private final ConcurrentLinkedQueue<Timeout> pending = new ConcurrentLinkedQueue<>(); // new tasks
+    private final ArrayDeque<Timeout>[][] wheels; // only touched by the wheel thread
+    private final List<Timeout> overflow = new ArrayList<>();
+    private long currentTick; // only touched by the wheel thread
+    private volatile long wakeTick; // tick the wheel thread is parked until (Long.MAX_VALUE = idle)
+    private final Thread worker;
+
+    public HierarchicalTimerWheel(long tickDuration, TimeUnit unit) {
+        this(tickDuration, unit, null);
+    }
+
+    // `failureHandler` receives exceptions thrown by tasks (null = JVM default handler)
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public HierarchicalTimerWheel(long tickDuration, TimeUnit unit, Thread.UncaughtExceptionHandler failureHandler) {
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.startNanos = System.nanoTime();
+        this.wheels = new ArrayDeque[LEVELS][SLOTS];
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                wheels[level][slot] = new ArrayDeque<>();
+            }
+        }
+
+        this.worker = new Thread(this::run, "timer-wheel");
+        worker.setDaemon(true);
+        if (failureHandler != null) {
+            worker.setUncaughtExceptionHandler(failureHandler);
+        }
+        worker.start();
+    }
+
+    // Thread-safe. The task runs no earlier than `delay` (rounded up to a tick).
+    public void schedule(Runnable task, long delay, TimeUnit unit) {
+        long deadlineNanos = System.nanoTime() + unit.toNanos(delay) - startNanos;
+        long deadlineTick = (deadlineNanos + tickNanos - 1) / tickNanos; // round up: never early
+        pending.add(new Timeout(deadlineTick, task));
+        if (deadlineTick < wakeTick) {
+            LockSupport.unpark(worker); // parked past this deadline: wake up and place it
+        }
+    }
+
+    private void run() {
+        while (true) {
+            long target = nextBusyTick();
+            wakeTick = target;
+            if (!pending.isEmpty()) {
+                target = currentTick + 1; // new tasks are placed by the next tick
+            }
+            if (target == Long.MAX_VALUE) {
+                LockSupport.park(this); // empty wheel: sleep until schedule()
+                continue;
+            }
+            long sleep = startNanos + target * tickNanos - System.nanoTime();
+            if (sleep > 0) {
+                LockSupport.parkNanos(this, sleep); // may return early: just recompute
+                continue;
+            }
+            currentTick = target; // the ticks skipped in between had nothing to do
+            tick(target);
+        }
+    }
+
+    // Earliest tick after currentTick at which tick() would do anything
+    private long nextBusyTick() {
+        long best = Long.MAX_VALUE;
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = level * BITS_PER_LEVEL;
+            long first = (currentTick >>> shift) + 1; // level-0 slots fire at their tick; coarser
+            for (long block = first; block < first + SLOTS; block++) { // slots cascade at their boundary
+                if (block << shift >= best) {
+                    break;
+                }
+                if (!wheels[level][(int) block & MASK].isEmpty()) {
+                    best = block << shift;
+                    break;
+                }
+            }
+        }
+        if (!overflow.isEmpty()) {
+            int topShift = (LEVELS - 1) * BITS_PER_LEVEL;
+            best = Math.min(best, ((currentTick >>> topShift) + 1) << topShift);
+        }
+        return best;
+    }
+
+    private void tick(long tick) {
+        // 1. Cascade coarser wheels whose slot boundary we just crossed (highest first)
+        int crossed = 0;
+        while (crossed + 1 < LEVELS && (tick & ((1L << ((crossed + 1) * BITS_PER_LEVEL)) - 1)) == 0) {
+            crossed++;
+        }
+        if (crossed == LEVELS - 1 && !overflow.isEmpty()) {
+            List<Timeout> retry = new ArrayList<>(overflow);
+            overflow.clear();
+            retry.forEach(t -> place(t, tick));
+        }
+        for (int level = crossed; level >= 1; level--) {
+            ArrayDeque<Timeout> slot = wheels[level][(int) (tick >>> (level * BITS_PER_LEVEL)) & MASK];
+            Timeout t;
+            while ((t = slot.poll()) != null) {
+                place(t, tick);
+            }
+        }
+
+        // 2. Add tasks scheduled since the last tick
+        Timeout t;
+        while ((t = pending.poll()) != null) {
+            place(t, tick);
+        }
+
+        // 3. Fire everything due now
+        ArrayDeque<Timeout> due = wheels[0][(int) tick & MASK];
+        while ((t = due.poll()) != null) {
+            try {
+                t.task.run();
+            } catch (Throwable e) { // one bad task must not kill the wheel
+                Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), e);
+            }
+        }
+    }
+
+    // Finest level whose slot distance (deadline block - current block) fits in one turn
+    private void place(Timeout t, long tick) {
+        long deadline = Math.max(t.deadlineTick, tick); // overdue ⇒ fire this tick
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = level * BITS_PER_LEVEL;
+            if ((deadline >>> shift) - (tick >>> shift) < SLOTS) {
+                wheels[level][(int) (deadline >>> shift) & MASK].add(t);
+                return;
+            }
+        }
+        overflow.add(t);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        HierarchicalTimerWheel wheel = new HierarchicalTimerWheel(1, TimeUnit.MILLISECONDS);
+        long start = System.nanoTime();
+
+        for (long delay : new long[] { 500, 5, 100, 70, 1500 }) {
+            wheel.schedule(() -> System.out.println("⏰ " + delay + "ms task fired at "
+                    + (System.nanoTime() - start) / 1_000_000 + "ms"), delay, TimeUnit.MILLISECONDS);
+        }
+        wheel.schedule(() -> {
+            throw new IllegalStateException("bad task");
+        }, 10, TimeUnit.MILLISECONDS); // reported to the default handler, wheel keeps going
+        Thread.sleep(1700);
+    }
+}
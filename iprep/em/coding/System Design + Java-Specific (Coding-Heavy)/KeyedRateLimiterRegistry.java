@@ -0,0 +1,173 @@
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Per-key (per API key / tenant) rate limiting.
+//
+// - One bucket per key, created lazily on the first request, using any
+//   RateLimiter algorithm (lock-free token bucket by default).
+// - Buckets live in a ConcurrentHashMap (internally striped: readers never lock).
+// - Buckets idle for longer than `idleTtl` are evicted by a background sweeper,
+//   so memory stays proportional to ACTIVE tenants, not all tenants ever seen.
+//
+// Hot path: allow(key) for an existing key is a map lookup + the bucket's own
+// decision (one CAS for the default bucket). Nothing is allocated.
+
+public class KeyedRateLimiterRegistry<K> {
+
+    // Only write lastAccess if it moved by more than this, so hot keys
+    // don't bounce the cache line on every single request
+    private static final long TOUCH_GRANULARITY_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private static final class Bucket {
+        final RateLimiter limiter;
+        volatile long lastAccess;
+
+        Bucket(RateLimiter limiter, long now) {
+            this.limiter = limiter;
+            this.lastAccess = now;
+        }
+    }
+
+    private final Supplier<? extends RateLimiter> bucketFactory;
+    private final long idleTtlNanos;
+    private final ConcurrentHashMap<K, Bucket> buckets;
+    private final ScheduledExecutorService sweeper;
+
+    private final LongAdder created = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private volatile double evictionsPerSecond;
+    private long lastSweep; // only touched by the sweeper thread (after construction)
+
+    // idleTtl is raised to at least one full refill (capacity / refillRatePerSecond,
+    // plus the lastAccess granularity): a shorter TTL would evict a drained
+    // bucket and recreate it FULL, so a client could dodge the limit by pausing.
+    public KeyedRateLimiterRegistry(int capacity, int refillRatePerSecond, long idleTtl, TimeUnit unit) {
+        this(() -> new LockFreeTokenBucketRateLimiter(capacity, refillRatePerSecond),
+                Math.max(unit.toNanos(idleTtl), minimumIdleTtlNanos(capacity, refillRatePerSecond)),
+                TimeUnit.NANOSECONDS);
+    }
+
+    // Time for an empty bucket to refill completely, plus the lastAccess granularity
+    static long minimumIdleTtlNanos(int capacity, int refillRatePerSecond) {
+        if (capacity <= 0 || refillRatePerSecond <= 0) {
+            throw new IllegalArgumentException("capacity and refillRatePerSecond must be positive");
+        }
+        long fullRefill = (long) Math.ceil(capacity * 1_000_000_000.0 / refillRatePerSecond);
+        return fullRefill + TOUCH_GRANULARITY_NANOS;
+    }
+
+    // e.g. () -> RateLimiter.Algorithm.SLIDING_WINDOW_COUNTER.create(100, 50)
+    // The caller must pick idleTtl >= the time the algorithm needs to forget
+    // all past requests (full refill / full window), see evictIdle().
+    public KeyedRateLimiterRegistry(Supplier<? extends RateLimiter> bucketFactory, long idleTtl, TimeUnit unit) {
+        if (idleTtl <= 0) {
+            // 0 would run the sweeper every nanosecond; a negative TTL would evict
+            // (and refill) every bucket on every sweep
+            throw new IllegalArgumentException("idleTtl must be positive");
+        }
+        this.bucketFactory = bucketFactory;
+        this.idleTtlNanos = unit.toNanos(idleTtl);
+        // concurrencyLevel = cores: enough bins/stripes for all writer threads
+        this.buckets = new ConcurrentHashMap<>(1024, 0.75f, Runtime.getRuntime().availableProcessors());
+
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "rate-limiter-sweeper");
+            t.setDaemon(true);
+            return t;
+        });
+        this.lastSweep = System.nanoTime();
+        long period = Math.max(1, idleTtlNanos / 2);
+        sweeper.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.NANOSECONDS);
+    }
+
+    public boolean allow(K key) {
+        long now = System.nanoTime();
+        Bucket bucket = buckets.get(key); // lock-free read, no allocation
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key, k -> {
+                created.increment();
+                return new Bucket(bucketFactory.get(), now);
+            });
+        }
+        if (now - bucket.lastAccess > TOUCH_GRANULARITY_NANOS) {
+            bucket.lastAccess = now;
+        }
+        return bucket.limiter.allowRequest();
+    }
+
+    // Removes buckets nobody touched for idleTtl. With idleTtl >= one full
+    // refill (or one full window), an idle bucket has already forgotten every
+    // past request, so recreating it later grants nothing extra.
+    void evictIdle() {
+        long started = System.nanoTime();
+        long removed = 0;
+        Iterator<Map.Entry<K, Bucket>> it = buckets.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<K, Bucket> e = it.next();
+            if (started - e.getValue().lastAccess > idleTtlNanos) {
+                // remove(key, value): don't drop a bucket that was just replaced
+                if (buckets.remove(e.getKey(), e.getValue())) {
+                    removed++;
+                }
+            }
+        }
+        evicted.add(removed);
+        double seconds = Math.max(1, started - lastSweep) / 1_000_000_000.0; // measured, not the nominal period
+        lastSweep = started;
+        evictionsPerSecond = removed / seconds;
+    }
+
+    public long liveBuckets() {
+        return buckets.mappingCount();
+    }
+
+    public long createdBuckets() {
+        return created.sum();
+    }
+
+    public long evictedBuckets() {
+        return evicted.sum();
+    }
+
+    // Evictions per second measured over the last sweep period
+    public double evictionRate() {
+        return evictionsPerSecond;
+    }
+
+    public void shutdown() {
+        sweeper.shutdownNow();
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        // 3 requests burst, 3 tokens/sec (full refill in 1s), evict after 1 second idle
+        KeyedRateLimiterRegistry<String> registry = new KeyedRateLimiterRegistry<>(3, 3, 1, TimeUnit.SECONDS);
+
+        for (int i = 0; i < 5; i++) {
+            System.out.println("tenant-A request " + i + ": " + registry.allow("tenant-A"));
+        }
+        System.out.println("tenant-B request 0: " + registry.allow("tenant-B")); // own bucket
+        System.out.println("Live buckets: " + registry.liveBuckets()); // 2
+
+        Thread.sleep(2_000); // both tenants go idle
+        System.out.println("Live buckets after idle: " + registry.liveBuckets()); // 0
+        System.out.println("Evicted: " + registry.evictedBuckets()); // 2
+
+        // A 100 ms TTL would let a drained tenant come back with a full bucket
+        // after a short pause; it is raised to the 3 s full refill (+ 100 ms)
+        KeyedRateLimiterRegistry<String> strict = new KeyedRateLimiterRegistry<>(3, 1, 100, TimeUnit.MILLISECONDS);
+        for (int i = 0; i < 3; i++) {
+            strict.allow("tenant-C"); // drain
+        }
+        Thread.sleep(500);
+        System.out.println("tenant-C after a 500ms pause: " + strict.allow("tenant-C")); // false
+        strict.shutdown();
+
+        registry.shutdown();
+    }
+}
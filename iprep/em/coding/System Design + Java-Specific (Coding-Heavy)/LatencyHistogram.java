@@ -0,0 +1,83 @@
+import java.util.concurrent.atomic.LongAdder;
+
+// Lock-free, log-linear latency histogram (a tiny HdrHistogram).
+//
+// Bucket = (power of two, 2 extra precision bits) ⇒ 4 buckets per doubling,
+// so any percentile is accurate to within ~25%. Each bucket is a LongAdder:
+// recording never blocks, and readers can compute percentiles while writers
+// keep recording (the numbers are a moving, not frozen, picture).
+
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = 64 * SUB_BUCKETS;
+
+    private final LongAdder[] counts = new LongAdder[BUCKETS];
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        counts[index(Math.max(0, nanos))].increment();
+    }
+
+    // Upper bound (nanos) of the bucket holding the given percentile, e.g. 99.0
+    public long percentile(double percentile) {
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts[i].sum();
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return upperBound(i);
+            }
+        }
+        return upperBound(BUCKETS - 1);
+    }
+
+    public long count() {
+        long total = 0;
+        for (LongAdder c : counts) {
+            total += c.sum();
+        }
+        return total;
+    }
+
+    public void reset() {
+        for (LongAdder c : counts) {
+            c.reset();
+        }
+    }
+
+    // Values < 4 map 1:1; above that: (log2 - 1) * 4 + next two bits below the top bit
+    private static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int log2 = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (log2 - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (log2 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int log2 = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long sub = index % SUB_BUCKETS;
+        long lower = (1L << log2) + (sub << (log2 - SUB_BUCKET_BITS));
+        return lower + (1L << (log2 - SUB_BUCKET_BITS)) - 1;
+    }
+}
@@ -1,42 +1,102 @@
-import java.util.LinkedList;
-import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
-public class LeakyBucketRateLimiter {
+public class LeakyBucketRateLimiter implements RateLimiter {
 
     private final int capacity;
-    private final int leakRatePerSecond; // how many requests can be processed per second
-    private final Queue<Long> queue; // holds timestamps
-    private long lastLeakTimestamp;
+    private final long nanosPerLeak; // time for one request to leak out (carries the rate)
+    private final Executor releaseExecutor; // runs completions in shaping mode
+    private long drainedAt; // when the bucket will be empty (water level as a timestamp)
+    private final RateLimiterMetrics metrics = new RateLimiterMetrics(this::waterLevel);
 
     public LeakyBucketRateLimiter(int capacity, int leakRatePerSecond) {
-        this.capacity = capacity;
-        this.leakRatePerSecond = leakRatePerSecond;
-        this.queue = new LinkedList<>();
-        this.lastLeakTimestamp = System.nanoTime();
+        this(capacity, leakRatePerSecond, ForkJoinPool.commonPool());
     }
 
-    public synchronized boolean allowRequest() {
-        leakOldRequests();  // Remove old requests from queue (simulate leak)
+    // On Java 21+ pass Executors.newVirtualThreadPerTaskExecutor() so every
+    // released request continues on its own cheap virtual thread
+    public LeakyBucketRateLimiter(int capacity, int leakRatePerSecond, Executor releaseExecutor) {
+        if (capacity <= 0 || leakRatePerSecond <= 0) {
+            // rate 0 would never leak, a negative rate would give a negative period
+            throw new IllegalArgumentException("capacity and leakRatePerSecond must be positive");
+        }
+        this.capacity = capacity;
+        // Rounded to whole nanoseconds: a rate that doesn't divide 1e9 is off by at
+        // most 0.5 ns per request (3/s: 333,333,333 ns; 300,000/s: 0.01% fast).
+        // Rounding rather than truncating keeps the error from always being "fast".
+        this.nanosPerLeak = Math.max(1, Math.round(1e9 / leakRatePerSecond));
+        this.releaseExecutor = releaseExecutor;
+        this.drainedAt = System.nanoTime();
+    }
 
-        if (queue.size() < capacity) {
-            queue.offer(System.nanoTime());
-            return true;
+    // Policing mode: admit if there is room, otherwise reject immediately
+    public boolean allowRequest() {
+        long now = System.nanoTime();
+        boolean timed = metrics.sampleLatency();
+        long slot;
+        synchronized (this) {
+            slot = reserveSlot(now);
         }
-        return false;
+        boolean allowed = slot >= 0;
+        record(allowed, timed, now);
+        return allowed;
     }
 
-    private void leakOldRequests() {
+    // Shaping mode: admit if there is room and complete the future when this
+    // request's slot comes up, exactly 1 / leakRatePerSecond after the previous one.
+    // A full bucket still overflows: the future fails with RejectedExecutionException.
+    public CompletableFuture<Void> submit() {
         long now = System.nanoTime();
-        double secondsPassed = (now - lastLeakTimestamp) / 1_000_000_000.0;
-        int tokensToRemove = (int)(secondsPassed * leakRatePerSecond);
+        boolean timed = metrics.sampleLatency();
+        long slot;
+        synchronized (this) {
+            slot = reserveSlot(now);
+        }
+        record(slot >= 0, timed, now);
+        if (slot < 0) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Bucket overflow"));
+        }
+        long delay = slot - now;
+        if (delay <= 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(() -> {
+        }, CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS, releaseExecutor));
+    }
+
+    // Current water level (requests still in the bucket)
+    public synchronized double waterLevel() {
+        long backlog = drainedAt - System.nanoTime();
+        return backlog <= 0 ? 0 : (double) backlog / nanosPerLeak;
+    }
+
+    public RateLimiterMetrics metrics() {
+        return metrics;
+    }
 
-        while (tokensToRemove-- > 0 && !queue.isEmpty()) {
-            queue.poll(); // leak out one request
+    // A sampled decision's latency includes time spent waiting for the lock
+    private void record(boolean allowed, boolean timed, long start) {
+        if (timed) {
+            metrics.record(allowed, System.nanoTime() - start);
+        } else {
+            metrics.record(allowed);
         }
+    }
 
-        if (tokensToRemove > 0) {
-            lastLeakTimestamp = now;
+    // Water level is (drainedAt - now) / nanosPerLeak, so leaking is implicit:
+    // time passing lowers it. O(1) time and memory, no per-request objects.
+    // Returns the time this request leaks out, or -1 if the bucket is full.
+    private long reserveSlot(long now) {
+        long start = Math.max(drainedAt, now);
+        long next = start + nanosPerLeak;
+        if (next - now > capacity * nanosPerLeak) {
+            return -1; // bucket full → overflow
         }
+        drainedAt = next;
+        return start;
     }
 
     public static void main(String[] args) throws InterruptedException {
@@ -50,5 +110,22 @@ public class LeakyBucketRateLimiter {
             }
             Thread.sleep(200); // simulate 200ms between requests
         }
+        System.out.println("📊 " + limiter.metrics().snapshot());
+
+        // Shaping: 5 requests arrive at once and are released 100ms apart
+        LeakyBucketRateLimiter shaper = new LeakyBucketRateLimiter(5, 10);
+        long start = System.nanoTime();
+        CompletableFuture<?>[] released = new CompletableFuture<?>[6];
+        for (int i = 0; i < released.length; i++) {
+            int id = i;
+            released[i] = shaper.submit().handle((ok, error) -> {
+                long ms = (System.nanoTime() - start) / 1_000_000;
+                System.out.println(error == null
+                        ? "⏱ Request " + id + " released at " + ms + "ms"
+                        : "❌ Request " + id + " overflowed");
+                return null;
+            });
+        }
+        CompletableFuture.allOf(released).join();
     }
 }
@@ -0,0 +1,81 @@
+import java.util.concurrent.atomic.AtomicLong;
+
+// Lock-free Token Bucket.
+//
+// The whole bucket state is ONE long: the instant (nanoTime) at which the
+// bucket was / will be empty. Tokens available "now" are simply
+//
+//     min(capacity, (now - emptyAt) / nanosPerToken)
+//
+// so refill and consume collapse into a single compareAndSet on that word.
+// No lock, no second field that can go out of sync.
+
+public class LockFreeTokenBucketRateLimiter implements RateLimiter {
+
+    private final int capacity; // Max tokens
+    private final long nanosPerToken; // Time to refill one token
+    private final long fullBucketNanos; // Time to refill the whole bucket
+    private final AtomicLong emptyAt; // When the bucket was (virtually) empty
+
+    public LockFreeTokenBucketRateLimiter(int capacity, int refillRatePerSecond) {
+        if (capacity <= 0 || refillRatePerSecond <= 0) {
+            throw new IllegalArgumentException("capacity and refillRatePerSecond must be positive");
+        }
+        this.capacity = capacity;
+        this.nanosPerToken = Math.max(1, 1_000_000_000L / refillRatePerSecond);
+        this.fullBucketNanos = capacity * nanosPerToken;
+        this.emptyAt = new AtomicLong(System.nanoTime() - fullBucketNanos); // start full
+    }
+
+    public boolean allowRequest() {
+        return tryAcquire(1);
+    }
+
+    // Take `permits` tokens at once, or none at all
+    public boolean tryAcquire(int permits) {
+        if (permits <= 0 || permits > capacity) {
+            throw new IllegalArgumentException("permits must be in 1.." + capacity);
+        }
+        long cost = permits * nanosPerToken;
+        while (true) {
+            long now = System.nanoTime();
+            long current = emptyAt.get();
+            // A bucket can never hold more than `capacity` tokens
+            long base = Math.max(current, now - fullBucketNanos);
+            long next = base + cost;
+            if (next - now > 0) {
+                return false; // Not enough tokens yet
+            }
+            if (emptyAt.compareAndSet(current, next)) {
+                return true;
+            }
+            // Lost the race to another thread: re-read and retry
+        }
+    }
+
+    // Fast peek: one volatile read, no CAS, no state change
+    public double availableTokens() {
+        long elapsed = System.nanoTime() - emptyAt.get();
+        return Math.min(capacity, Math.max(0, elapsed) / (double) nanosPerToken);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        LockFreeTokenBucketRateLimiter limiter = new LockFreeTokenBucketRateLimiter(5, 2); // 5 tokens max, 2 tokens/sec
+
+        System.out.println("Take 3 at once: " + limiter.tryAcquire(3)); // true
+        System.out.printf("Remaining: %.2f%n", limiter.availableTokens()); // ~2.00
+
+        for (int i = 0; i < 10; i++) {
+            if (limiter.allowRequest()) {
+                System.out.println("Request " + i + " allowed");
+            } else {
+                System.out.println("Request " + i + " denied (rate limited)");
+            }
+            Thread.sleep(300); // simulate time gap
+        }
+    }
+}
@@ -0,0 +1,46 @@
+// Common contract for every rate limiting algorithm in this folder,
+// so callers can swap algorithms by configuration:
+//
+//     RateLimiter limiter = RateLimiter.Algorithm.valueOf("SLIDING_WINDOW_COUNTER").create(100, 50);
+
+public interface RateLimiter {
+
+    // true ⇒ let the request through, false ⇒ reject (rate limited)
+    boolean allowRequest();
+
+    enum Algorithm {
+        TOKEN_BUCKET {
+            public RateLimiter create(int capacity, int ratePerSecond) {
+                return new TokenBucketRateLimiter(capacity, ratePerSecond);
+            }
+        },
+        LOCK_FREE_TOKEN_BUCKET {
+            public RateLimiter create(int capacity, int ratePerSecond) {
+                return new LockFreeTokenBucketRateLimiter(capacity, ratePerSecond);
+            }
+        },
+        LEAKY_BUCKET {
+            public RateLimiter create(int capacity, int ratePerSecond) {
+                return new LeakyBucketRateLimiter(capacity, ratePerSecond);
+            }
+        },
+        // Window sized so that `capacity` requests per window == `ratePerSecond`
+        SLIDING_WINDOW_LOG {
+            public RateLimiter create(int capacity, int ratePerSecond) {
+                return new SlidingWindowLogRateLimiter(capacity, windowMillis(capacity, ratePerSecond));
+            }
+        },
+        SLIDING_WINDOW_COUNTER {
+            public RateLimiter create(int capacity, int ratePerSecond) {
+                return new SlidingWindowCounterRateLimiter(capacity, windowMillis(capacity, ratePerSecond));
+            }
+        };
+
+        // capacity = max burst, ratePerSecond = sustained rate
+        public abstract RateLimiter create(int capacity, int ratePerSecond);
+
+        private static long windowMillis(int capacity, int ratePerSecond) {
+            return Math.max(1, capacity * 1000L / ratePerSecond);
+        }
+    }
+}
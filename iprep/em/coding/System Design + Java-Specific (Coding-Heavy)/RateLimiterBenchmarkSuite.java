@@ -0,0 +1,82 @@
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+// Benchmark suite for every RateLimiter.Algorithm at 1, 8 and 64 threads.
+//
+// For each (algorithm, threads) pair:
+//   - warmup run (lets the JIT compile the decision path), then a measured run
+//   - all threads share ONE limiter instance (worst-case contention)
+//   - reports decisions/sec and p50 / p99 / p99.9 decision latency
+//
+// Latency is sampled on 1 of every 16 calls so the two nanoTime() calls don't
+// dominate the thing being measured.
+// TOKEN_BUCKET and LEAKY_BUCKET also feed their own RateLimiterMetrics: two
+// LongAdder counters on every call, and a timed sample on ~1 in 16 calls.
+//
+// Run: java RateLimiterBenchmarkSuite [millisPerRun]
+
+public class RateLimiterBenchmarkSuite {
+
+    private static final int[] THREAD_COUNTS = { 1, 8, 64 };
+    private static final int CAPACITY = 10_000;
+    private static final int RATE_PER_SECOND = 1_000_000;
+    private static final int SAMPLE_MASK = 15; // sample 1 / 16 calls
+
+    public static void main(String[] args) throws InterruptedException {
+        long millis = args.length > 0 ? Long.parseLong(args[0]) : 2_000;
+
+        System.out.printf("%-24s %8s %16s %10s %10s %10s%n", "algorithm", "threads", "ops/s", "p50 ns", "p99 ns",
+                "p99.9 ns");
+        for (RateLimiter.Algorithm algorithm : RateLimiter.Algorithm.values()) {
+            for (int threads : THREAD_COUNTS) {
+                run(algorithm.create(CAPACITY, RATE_PER_SECOND), threads, millis / 4, new LatencyHistogram()); // warmup
+
+                LatencyHistogram latency = new LatencyHistogram();
+                double opsPerSecond = run(algorithm.create(CAPACITY, RATE_PER_SECOND), threads, millis, latency);
+                System.out.printf("%-24s %8d %,16.0f %10d %10d %10d%n", algorithm, threads, opsPerSecond,
+                        latency.percentile(50), latency.percentile(99), latency.percentile(99.9));
+            }
+        }
+    }
+
+    // Returns decisions per second across all threads
+    static double run(RateLimiter limiter, int threads, long millis, LatencyHistogram latency)
+            throws InterruptedException {
+        LongAdder ops = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long deadline = System.nanoTime() + millis * 1_000_000;
+                long local = 0;
+                while (System.nanoTime() < deadline) {
+                    if ((local & SAMPLE_MASK) == 0) {
+                        long begin = System.nanoTime();
+                        limiter.allowRequest();
+                        latency.record(System.nanoTime() - begin);
+                    } else {
+                        limiter.allowRequest();
+                    }
+                    local++;
+                }
+                ops.add(local);
+                done.countDown();
+            });
+            worker.setDaemon(true);
+            worker.start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - begin;
+        return ops.sum() / (elapsed / 1_000_000_000.0);
+    }
+}
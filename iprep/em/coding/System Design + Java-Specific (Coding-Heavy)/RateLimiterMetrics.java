@@ -0,0 +1,87 @@
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+// Instrumentation for a rate limiter: allowed/denied counters, current fill
+// level and the latency of the allow/deny decision (including lock wait).
+//
+// Everything is LongAdder based, so a monitoring thread can call snapshot()
+// at any time without pausing or slowing request threads.
+//
+// The counters are updated on every decision. Latency is sampled: only about 1
+// in 16 decisions pays for the two nanoTime() calls and the histogram write,
+// so the instrumentation doesn't dominate the decision it measures.
+
+public class RateLimiterMetrics {
+
+    private static final int SAMPLE_MASK = 15; // time ~1 / 16 decisions
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder denied = new LongAdder();
+    private final LatencyHistogram decisionLatency = new LatencyHistogram();
+    private final DoubleSupplier fillLevel;
+
+    public RateLimiterMetrics(DoubleSupplier fillLevel) {
+        this.fillLevel = fillLevel;
+    }
+
+    // Ask before a decision: true ⇒ time it and report with record(allowed, nanos).
+    // ThreadLocalRandom keeps shared state out of the unsampled path.
+    boolean sampleLatency() {
+        return (ThreadLocalRandom.current().nextInt() & SAMPLE_MASK) == 0;
+    }
+
+    // Untimed decision
+    void record(boolean wasAllowed) {
+        if (wasAllowed) {
+            allowed.increment();
+        } else {
+            denied.increment();
+        }
+    }
+
+    // Timed (sampled) decision
+    void record(boolean wasAllowed, long decisionNanos) {
+        record(wasAllowed);
+        decisionLatency.record(decisionNanos);
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(allowed.sum(), denied.sum(), fillLevel.getAsDouble(),
+                decisionLatency.percentile(50), decisionLatency.percentile(99), decisionLatency.percentile(99.9),
+                decisionLatency.count());
+    }
+
+    public static final class Snapshot {
+        public final long allowed;
+        public final long denied;
+        public final double fillLevel; // tokens left (token bucket) or water level (leaky bucket)
+        public final long p50Nanos;
+        public final long p99Nanos;
+        public final long p999Nanos;
+        public final long latencySamples; // timed decisions behind the percentiles (0 ⇒ they read 0)
+
+        Snapshot(long allowed, long denied, double fillLevel, long p50Nanos, long p99Nanos, long p999Nanos,
+                long latencySamples) {
+            this.allowed = allowed;
+            this.denied = denied;
+            this.fillLevel = fillLevel;
+            this.p50Nanos = p50Nanos;
+            this.p99Nanos = p99Nanos;
+            this.p999Nanos = p999Nanos;
+            this.latencySamples = latencySamples;
+        }
+
+        public double rejectionRatio() {
+            long total = allowed + denied;
+            return total == 0 ? 0 : (double) denied / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "allowed=%d denied=%d (%.1f%% rejected) fill=%.2f p50=%dns p99=%dns p99.9=%dns (%d timed)",
+                    allowed, denied, rejectionRatio() * 100, fillLevel, p50Nanos, p99Nanos, p999Nanos, latencySamples);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+
+// Host-wide token budget shared by several JVMs through a memory-mapped file.
+//
+// Same single-word idea as LockFreeTokenBucketRateLimiter: the bucket state is
+// `emptyAt` (when the bucket was empty). Here it lives in a file mapped by every
+// process, and is updated with compareAndSet through a VarHandle view of the
+// MappedByteBuffer, so all JVMs on the host CAS the same physical memory.
+//
+// Time is wall-clock epoch nanos (System.nanoTime() is not comparable across
+// processes). A clock jumping backwards never grants extra tokens: it only
+// delays refill.
+//
+// File layout (native byte order, 8-byte aligned):
+//   [0]  capacity
+//   [8]  nanosPerToken
+//   [16] emptyAt
+
+public class SharedTokenBudget implements Closeable {
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private static final int CAPACITY_OFFSET = 0;
+    private static final int NANOS_PER_TOKEN_OFFSET = 8;
+    private static final int EMPTY_AT_OFFSET = 16;
+    private static final int FILE_SIZE = 64; // one cache line
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final long capacity;
+    private final long nanosPerToken;
+    private final long fullBucketNanos;
+
+    // Every process opens the same file with the same settings; the first one initializes it
+    public SharedTokenBudget(Path file, int capacity, int refillRatePerSecond) throws IOException {
+        if (capacity <= 0 || refillRatePerSecond <= 0) {
+            throw new IllegalArgumentException("capacity and refillRatePerSecond must be positive");
+        }
+        this.capacity = capacity;
+        this.nanosPerToken = Math.max(1, 1_000_000_000L / refillRatePerSecond);
+        this.fullBucketNanos = capacity * nanosPerToken;
+
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_SIZE);
+
+        initField(CAPACITY_OFFSET, this.capacity, "capacity");
+        initField(NANOS_PER_TOKEN_OFFSET, this.nanosPerToken, "refill rate");
+        LONGS.compareAndSet(buffer, EMPTY_AT_OFFSET, 0L, now() - fullBucketNanos); // start full
+    }
+
+    // Zero means "not initialized yet"; anything else must match our settings
+    private void initField(int offset, long value, String name) {
+        if (!LONGS.compareAndSet(buffer, offset, 0L, value)) {
+            long existing = (long) LONGS.getVolatile(buffer, offset);
+            if (existing != value) {
+                throw new IllegalStateException("Shared budget already uses a different " + name);
+            }
+        }
+    }
+
+    // Take up to `max` tokens. Returns how many were granted (0 ⇒ budget empty).
+    public long lease(long max) {
+        while (true) {
+            long now = now();
+            long current = (long) LONGS.getVolatile(buffer, EMPTY_AT_OFFSET);
+            long base = Math.max(current, now - fullBucketNanos);
+            long available = (now - base) / nanosPerToken;
+            if (available <= 0) {
+                return 0;
+            }
+            long granted = Math.min(max, available);
+            if (LONGS.compareAndSet(buffer, EMPTY_AT_OFFSET, current, base + granted * nanosPerToken)) {
+                return granted;
+            }
+        }
+    }
+
+    // Give back leased tokens that were never used (e.g. on shutdown)
+    public void giveBack(long tokens) {
+        if (tokens <= 0) {
+            return;
+        }
+        while (true) {
+            long current = (long) LONGS.getVolatile(buffer, EMPTY_AT_OFFSET);
+            long floor = now() - fullBucketNanos; // never above capacity
+            long next = Math.max(floor, current - tokens * nanosPerToken);
+            if (next >= current || LONGS.compareAndSet(buffer, EMPTY_AT_OFFSET, current, next)) {
+                return;
+            }
+        }
+    }
+
+    public double availableTokens() {
+        long elapsed = now() - (long) LONGS.getVolatile(buffer, EMPTY_AT_OFFSET);
+        return Math.min(capacity, Math.max(0, elapsed) / (double) nanosPerToken);
+    }
+
+    // Nanos until the next token appears (0 if one is available now)
+    public long nanosUntilNextToken() {
+        long current = (long) LONGS.getVolatile(buffer, EMPTY_AT_OFFSET);
+        return Math.max(0, current + nanosPerToken - now());
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    private static long now() {
+        Instant now = Instant.now();
+        return now.getEpochSecond() * 1_000_000_000L + now.getNano();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close(); // the mapping stays valid until the buffer is garbage collected
+    }
+}
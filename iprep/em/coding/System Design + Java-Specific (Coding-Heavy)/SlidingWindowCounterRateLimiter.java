@@ -0,0 +1,85 @@
+// Sliding Window COUNTER rate limiter: approximately `limit` requests per `windowMillis`.
+//
+// A fixed window (reset counter every second) lets 2x limit through around
+// the boundary: `limit` at 0.99s and `limit` again at 1.01s. Here the window
+// is split into `subWindows` small buckets held in preallocated arrays, and
+// the window slides one bucket at a time:
+//
+//   |  b0  |  b1  | ... |  bN-1  |  bN  |
+//    ^ partly outside the window: counted by the fraction still inside
+//
+// estimate = (full buckets) + (oldest bucket) * (fraction of it still inside)
+//
+// O(1) amortized per request, zero allocation, memory = O(subWindows).
+
+public class SlidingWindowCounterRateLimiter implements RateLimiter {
+
+    private static final int DEFAULT_SUB_WINDOWS = 10;
+
+    private final int limit;
+    private final long bucketNanos;
+    private final long[] counts; // subWindows + 1 buckets: the extra one is the partial oldest
+    private long currentBucket; // absolute id of the newest bucket (now / bucketNanos)
+    private long total; // sum of all counts[]
+
+    public SlidingWindowCounterRateLimiter(int limit, long windowMillis) {
+        this(limit, windowMillis, DEFAULT_SUB_WINDOWS);
+    }
+
+    public SlidingWindowCounterRateLimiter(int limit, long windowMillis, int subWindows) {
+        if (limit <= 0 || windowMillis <= 0 || subWindows <= 0) {
+            throw new IllegalArgumentException("limit, windowMillis and subWindows must be positive");
+        }
+        this.limit = limit;
+        this.bucketNanos = Math.max(1, windowMillis * 1_000_000 / subWindows);
+        this.counts = new long[subWindows + 1];
+        this.currentBucket = Math.floorDiv(System.nanoTime(), bucketNanos);
+    }
+
+    public synchronized boolean allowRequest() {
+        long now = System.nanoTime();
+        advance(Math.floorDiv(now, bucketNanos));
+
+        // Fraction of the oldest bucket that has already slid out of the window
+        double elapsedInBucket = Math.floorMod(now, bucketNanos) / (double) bucketNanos;
+        long oldestCount = counts[index(currentBucket + 1)]; // the slot after newest is the oldest
+        double estimate = total - oldestCount * elapsedInBucket;
+
+        if (estimate + 1 > limit) {
+            return false;
+        }
+        counts[index(currentBucket)]++;
+        total++;
+        return true;
+    }
+
+    // Clear buckets that slid out completely since the last request
+    private void advance(long bucket) {
+        long steps = Math.min(bucket - currentBucket, counts.length);
+        for (long i = 1; i <= steps; i++) {
+            int slot = index(currentBucket + i);
+            total -= counts[slot];
+            counts[slot] = 0;
+        }
+        if (bucket > currentBucket) {
+            currentBucket = bucket;
+        }
+    }
+
+    private int index(long bucket) {
+        return (int) Math.floorMod(bucket, (long) counts.length);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        SlidingWindowCounterRateLimiter limiter = new SlidingWindowCounterRateLimiter(3, 1000); // ~3 per second
+
+        for (int i = 0; i < 10; i++) {
+            if (limiter.allowRequest()) {
+                System.out.println("Request " + i + " allowed");
+            } else {
+                System.out.println("Request " + i + " denied (rate limited)");
+            }
+            Thread.sleep(200); // simulate time gap
+        }
+    }
+}
@@ -0,0 +1,52 @@
+// Sliding Window LOG rate limiter: at most `limit` requests in ANY window of `windowMillis`.
+//
+// We keep the timestamps of the last `limit` admitted requests in a
+// preallocated long[] ring buffer. The slot we are about to overwrite is the
+// OLDEST admitted request:
+//
+//   - oldest is still inside the window ⇒ `limit` requests already happened ⇒ reject
+//   - oldest fell out of the window   ⇒ admit and overwrite it with `now`
+//
+// Exact at window boundaries, O(1) per request, zero allocation.
+
+public class SlidingWindowLogRateLimiter implements RateLimiter {
+
+    private final long windowNanos;
+    private final long[] log; // ring buffer of admitted timestamps
+    private int oldest; // index of the oldest admitted timestamp
+
+    public SlidingWindowLogRateLimiter(int limit, long windowMillis) {
+        if (limit <= 0 || windowMillis <= 0) {
+            throw new IllegalArgumentException("limit and windowMillis must be positive");
+        }
+        this.windowNanos = windowMillis * 1_000_000;
+        this.log = new long[limit];
+        long expired = System.nanoTime() - windowNanos;
+        for (int i = 0; i < limit; i++) {
+            log[i] = expired; // start empty: every slot already outside the window
+        }
+    }
+
+    public synchronized boolean allowRequest() {
+        long now = System.nanoTime();
+        if (now - log[oldest] < windowNanos) {
+            return false; // `limit` requests within the last window
+        }
+        log[oldest] = now;
+        oldest = (oldest + 1) % log.length;
+        return true;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        SlidingWindowLogRateLimiter limiter = new SlidingWindowLogRateLimiter(3, 1000); // 3 per second
+
+        for (int i = 0; i < 10; i++) {
+            if (limiter.allowRequest()) {
+                System.out.println("Request " + i + " allowed");
+            } else {
+                System.out.println("Request " + i + " denied (rate limited)");
+            }
+            Thread.sleep(200); // simulate time gap
+        }
+    }
+}
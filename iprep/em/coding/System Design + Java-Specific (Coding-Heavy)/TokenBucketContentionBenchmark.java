@@ -0,0 +1,66 @@
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+// Contention benchmark: synchronized TokenBucketRateLimiter vs LockFreeTokenBucketRateLimiter.
+//
+// Every thread hammers allowRequest() on ONE shared limiter for a fixed time.
+// We report decisions per second (allowed + denied) for 1, 2, 4 ... N threads.
+//
+// Run: java TokenBucketContentionBenchmark [maxThreads] [millisPerRun]
+
+public class TokenBucketContentionBenchmark {
+
+    private static final int CAPACITY = 1_000;
+    private static final int RATE_PER_SECOND = 1_000_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        long millis = args.length > 1 ? Long.parseLong(args[1]) : 1_000;
+
+        // Warm up both code paths so the JIT has compiled them
+        run(new TokenBucketRateLimiter(CAPACITY, RATE_PER_SECOND)::allowRequest, 1, 500);
+        run(new LockFreeTokenBucketRateLimiter(CAPACITY, RATE_PER_SECOND)::allowRequest, 1, 500);
+
+        System.out.printf("%-8s %20s %20s %8s%n", "threads", "synchronized ops/s", "lock-free ops/s", "speedup");
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            double sync = run(new TokenBucketRateLimiter(CAPACITY, RATE_PER_SECOND)::allowRequest, threads, millis);
+            double cas = run(new LockFreeTokenBucketRateLimiter(CAPACITY, RATE_PER_SECOND)::allowRequest, threads, millis);
+            System.out.printf("%-8d %,20.0f %,20.0f %7.2fx%n", threads, sync, cas, cas / sync);
+        }
+    }
+
+    // Returns decisions per second across all threads
+    static double run(BooleanSupplier limiter, int threads, long millis) throws InterruptedException {
+        LongAdder ops = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long deadline = System.nanoTime() + millis * 1_000_000;
+                long local = 0;
+                while (System.nanoTime() < deadline) {
+                    limiter.getAsBoolean();
+                    local++;
+                }
+                ops.add(local);
+                done.countDown();
+            });
+            worker.setDaemon(true);
+            worker.start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - begin;
+        return ops.sum() / (elapsed / 1_000_000_000.0);
+    }
+}
@@ -1,11 +1,20 @@
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
-public class TokenBucketRateLimiter {
+public class TokenBucketRateLimiter implements RateLimiter {
+
+    // One wheel thread parks the waiters of every limiter (created on first use)
+    private static final class Waiters {
+        static final HierarchicalTimerWheel WHEEL = new HierarchicalTimerWheel(1, TimeUnit.MILLISECONDS);
+    }
 
     private final int capacity; // Max tokens
     private final int refillRatePerSecond; // How many tokens added per second
     private double currentTokens; // Current tokens in bucket
     private long lastRefillTimestamp; // When we last refilled
+    private final RateLimiterMetrics metrics = new RateLimiterMetrics(this::availableTokens);
 
     public TokenBucketRateLimiter(int capacity, int refillRatePerSecond) {
         this.capacity = capacity;
@@ -14,7 +23,19 @@ public class TokenBucketRateLimiter {
         this.lastRefillTimestamp = System.nanoTime();
     }
 
-    public synchronized boolean allowRequest() {
+    public boolean allowRequest() {
+        if (!metrics.sampleLatency()) {
+            boolean allowed = tryTakeToken();
+            metrics.record(allowed);
+            return allowed;
+        }
+        long start = System.nanoTime();
+        boolean allowed = tryTakeToken(); // includes time spent waiting for the lock
+        metrics.record(allowed, System.nanoTime() - start);
+        return allowed;
+    }
+
+    private synchronized boolean tryTakeToken() {
         refill(); // Refill tokens based on elapsed time
 
         if (currentTokens >= 1) {
@@ -25,6 +46,87 @@ public class TokenBucketRateLimiter {
         }
     }
 
+    // Current fill level (tokens in the bucket, negative while waiters are in debt)
+    public synchronized double availableTokens() {
+        refill();
+        return currentTokens;
+    }
+
+    public RateLimiterMetrics metrics() {
+        return metrics;
+    }
+
+    // Blocks until a token is ours. The token is reserved up front, so waiters
+    // are served in arrival order and allowRequest() can't steal it meanwhile.
+    public void acquire() throws InterruptedException {
+        await(reserve(Long.MAX_VALUE));
+    }
+
+    // Waits at most `timeout` for a token; gives up immediately (taking nothing)
+    // if the exact wait for the next token is longer than that. If interrupted
+    // while waiting (here or in acquire()), the reserved token is given back.
+    public boolean tryAcquire(long timeout, TimeUnit unit) throws InterruptedException {
+        long waitNanos = reserve(unit.toNanos(timeout));
+        if (waitNanos < 0) {
+            return false;
+        }
+        await(waitNanos);
+        return true;
+    }
+
+    // Completes (on the timer wheel thread) when the reserved token becomes
+    // available. No thread is blocked while waiting: use the *Async stages for
+    // real work after it. To give up, cancel() the future: that returns the
+    // reserved token (a future that is merely dropped keeps it).
+    public CompletableFuture<Void> acquireAsync() {
+        long waitNanos = reserve(Long.MAX_VALUE);
+        if (waitNanos == 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<Void> ready = new CompletableFuture<>();
+        ready.whenComplete((ignored, error) -> {
+            if (ready.isCancelled()) {
+                refund(); // the wheel still fires later; complete() is then a no-op
+            }
+        });
+        Waiters.WHEEL.schedule(() -> ready.complete(null), waitNanos, TimeUnit.NANOSECONDS);
+        return ready;
+    }
+
+    // Takes one token, possibly going into debt (negative tokens), and returns
+    // the exact wait until that token is refilled: 0 = now, -1 = longer than maxWaitNanos
+    private synchronized long reserve(long maxWaitNanos) {
+        refill();
+        long waitNanos = currentTokens >= 1 ? 0
+                : (long) Math.ceil((1 - currentTokens) * 1_000_000_000.0 / refillRatePerSecond);
+        if (waitNanos > maxWaitNanos) {
+            return -1;
+        }
+        currentTokens -= 1;
+        return waitNanos;
+    }
+
+    private void await(long waitNanos) throws InterruptedException {
+        if (waitNanos == 0) {
+            return;
+        }
+        CompletableFuture<Void> ready = new CompletableFuture<>();
+        Waiters.WHEEL.schedule(() -> ready.complete(null), waitNanos, TimeUnit.NANOSECONDS);
+        try {
+            ready.get(); // parked, not spinning
+        } catch (InterruptedException e) {
+            refund(); // we won't use the reserved token: give it back to everyone else
+            throw e;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private synchronized void refund() {
+        refill();
+        currentTokens = Math.min(capacity, currentTokens + 1);
+    }
+
     private void refill() {
         long now = System.nanoTime();
         double secondsPassed = (now - lastRefillTimestamp) / 1_000_000_000.0;
@@ -47,5 +149,38 @@ public class TokenBucketRateLimiter {
             }
             Thread.sleep(300); // simulate time gap
         }
+        System.out.println("Metrics: " + limiter.metrics().snapshot());
+
+        // No more sleep-and-retry: wait exactly until the next token
+        TokenBucketRateLimiter blocking = new TokenBucketRateLimiter(1, 5); // 1 token, 5 tokens/sec
+        long start = System.nanoTime();
+        for (int i = 0; i < 4; i++) {
+            blocking.acquire();
+            System.out.println("Acquired " + i + " at " + (System.nanoTime() - start) / 1_000_000 + "ms");
+        }
+        System.out.println("Within 50ms? " + blocking.tryAcquire(50, TimeUnit.MILLISECONDS)); // false
+        blocking.acquireAsync().thenRun(() -> System.out.println("Async token ready")).join();
+
+        // An interrupted waiter returns its reservation instead of leaving the bucket in debt
+        TokenBucketRateLimiter slow = new TokenBucketRateLimiter(1, 1); // 1 token/sec
+        slow.allowRequest(); // bucket empty
+        Thread waiter = new Thread(() -> {
+            try {
+                slow.acquire();
+            } catch (InterruptedException e) {
+                System.out.println("Waiter interrupted, token refunded");
+            }
+        });
+        waiter.start();
+        Thread.sleep(100);
+        waiter.interrupt();
+        waiter.join();
+        System.out.printf("Tokens after interrupt: %.1f%n", slow.availableTokens()); // ~0.1, not ~-0.9
+
+        // Same for a cancelled async reservation
+        TokenBucketRateLimiter async = new TokenBucketRateLimiter(1, 1);
+        async.allowRequest(); // bucket empty
+        async.acquireAsync().cancel(false);
+        System.out.printf("Tokens after cancel: %.1f%n", async.availableTokens()); // ~0.0, not ~-1.0
     }
 }